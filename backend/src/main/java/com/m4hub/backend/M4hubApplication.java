@@ -16,17 +16,6 @@ public class M4hubApplication {
         SpringApplication.run(M4hubApplication.class, args);
     }
 
-    @Bean
-    public org.springframework.core.task.TaskExecutor taskExecutor() {
-        org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor executor = new org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(25);
-        executor.setThreadNamePrefix("M4HubAsync-");
-        executor.initialize();
-        return executor;
-    }
-
     @Bean
     public CommandLineRunner runMigration(JdbcTemplate jdbcTemplate) {
         return args -> {
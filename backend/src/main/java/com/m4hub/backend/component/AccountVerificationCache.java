@@ -0,0 +1,86 @@
+package com.m4hub.backend.component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the bank's answer to "do these account details belong together?".
+ * Confirmations are kept for a long TTL and rejections for a short one, so a
+ * typo is not re-checked on every retry but a fixed account is picked up soon.
+ * Gateway errors are never cached. Keys hold a hash of the account number,
+ * not the number itself.
+ */
+@Component
+public class AccountVerificationCache {
+
+    private final BankingGateway bankingGateway;
+    private final Cache<String, Boolean> verified;
+    private final Cache<String, Boolean> rejected;
+
+    public AccountVerificationCache(BankingGateway bankingGateway,
+            @Value("${payments.verification.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${payments.verification.negative-ttl-minutes:10}") long negativeTtlMinutes) {
+        this.bankingGateway = bankingGateway;
+        this.verified = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .maximumSize(50000)
+                .build();
+        this.rejected = CacheBuilder.newBuilder()
+                .expireAfterWrite(negativeTtlMinutes, TimeUnit.MINUTES)
+                .maximumSize(10000)
+                .build();
+    }
+
+    /**
+     * @return true if account is valid and verified
+     */
+    public boolean verify(String accountNumber, String ifscCode, String accountHolderName) {
+        String key = key(accountNumber, ifscCode, accountHolderName);
+        if (verified.getIfPresent(key) != null) {
+            return true;
+        }
+        if (rejected.getIfPresent(key) != null) {
+            return false;
+        }
+
+        boolean valid = bankingGateway.verifyBankAccount(accountNumber, ifscCode, accountHolderName);
+        (valid ? verified : rejected).put(key, Boolean.TRUE);
+        return valid;
+    }
+
+    /**
+     * @return true if the bank confirmed these details recently; never calls the bank
+     */
+    public boolean isVerified(String accountNumber, String ifscCode, String accountHolderName) {
+        return verified.getIfPresent(key(accountNumber, ifscCode, accountHolderName)) != null;
+    }
+
+    private static String key(String accountNumber, String ifscCode, String accountHolderName) {
+        return hash(accountNumber) + "|" + normalize(ifscCode) + "|" + normalize(accountHolderName);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    private static String hash(String accountNumber) {
+        if (accountNumber == null) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(accountNumber.trim().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.m4hub.backend.component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived snapshots of the bank's view of an account balance.
+ * Repeated balance checks inside the TTL are served from memory, and
+ * concurrent checks for the same account share a single gateway call.
+ * Each snapshot records when its gateway call started, so callers can tell
+ * whether it could have missed a movement they already know about.
+ */
+@Component
+public class BalanceSnapshotCache {
+
+    private final BankingGateway bankingGateway;
+    private final Cache<Long, Snapshot> snapshots;
+    private final Map<Long, CompletableFuture<Snapshot>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param fetchStartedNanos {@link System#nanoTime()} when the gateway call began
+     */
+    public record Snapshot(BigDecimal balance, long fetchStartedNanos) {
+    }
+
+    public BalanceSnapshotCache(BankingGateway bankingGateway,
+            @Value("${payments.balance.snapshot-ttl-seconds:15}") long ttlSeconds) {
+        this.bankingGateway = bankingGateway;
+        this.snapshots = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .maximumSize(10000)
+                .build();
+    }
+
+    public BigDecimal getBalance(Long accountId, String accountNumber) {
+        return getSnapshot(accountId, accountNumber).balance();
+    }
+
+    public Snapshot getSnapshot(Long accountId, String accountNumber) {
+        Snapshot cached = snapshots.getIfPresent(accountId);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Snapshot> refresh = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = inFlight.putIfAbsent(accountId, refresh);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        // Wired up outside putIfAbsent: a fetch rejected by the bulkhead
+        // completes immediately and must not touch the map re-entrantly
+        long startedNanos = System.nanoTime();
+        bankingGateway.fetchBalanceAsync(accountNumber).whenComplete((balance, error) -> {
+            Snapshot snapshot = error == null ? new Snapshot(balance, startedNanos) : null;
+            if (snapshot != null) {
+                snapshots.put(accountId, snapshot);
+            }
+            inFlight.remove(accountId, refresh);
+            if (snapshot != null) {
+                refresh.complete(snapshot);
+            } else {
+                refresh.completeExceptionally(error);
+            }
+        });
+        return await(refresh);
+    }
+
+    /**
+     * Forget the snapshot, e.g. after money moved on the account.
+     */
+    public void evict(Long accountId) {
+        if (accountId != null) {
+            snapshots.invalidate(accountId);
+        }
+    }
+
+    public void evictAll() {
+        snapshots.invalidateAll();
+    }
+
+    private static Snapshot await(CompletableFuture<Snapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,45 +1,153 @@
 package com.m4hub.backend.component;
 
+import com.m4hub.backend.exception.BankingGatewayException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simulated Banking Gateway / UPI SDK
- * In a real production environment, this would integrate with NPCI (UPI)
- * or a Payment Gateway API (Razorpay, Stripe, etc.)
+ * Banking Gateway / UPI SDK facade.
+ * Calls go to the configured {@link BankingGatewayClient} on a dedicated pool
+ * and complete asynchronously. Each operation has its own timeout, concurrent
+ * calls are capped by a bulkhead (excess calls fail fast instead of queueing),
+ * and repeated technical failures open a circuit breaker so a struggling bank
+ * is not hammered. Latency is recorded per operation and outcome in the
+ * {@code banking.gateway.latency} timer.
+ * The client is chosen by {@code banking.gateway.mode}; startup fails with a
+ * clear message when no client serves the configured mode.
  */
 @Component
 public class BankingGateway {
     private static final Logger logger = LoggerFactory.getLogger(BankingGateway.class);
 
+    private static final String OP_TRANSFER = "transfer";
+    private static final String OP_VERIFY = "verify";
+    private static final String OP_BALANCE = "balance";
+    private static final String OP_STATUS = "status";
+
+    private final BankingGatewayClient client;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore bulkhead;
+    private final GatewayCircuitBreaker circuitBreaker;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final long transferTimeoutMs;
+    private final long verifyTimeoutMs;
+    private final long balanceTimeoutMs;
+    private final long statusTimeoutMs;
+
+    @Autowired
+    public BankingGateway(ObjectProvider<BankingGatewayClient> clients,
+            @Value("${banking.gateway.mode:simulated}") String mode,
+            MeterRegistry meterRegistry,
+            @Value("${banking.gateway.max-concurrent-calls:16}") int maxConcurrentCalls,
+            @Value("${banking.gateway.transfer-timeout-ms:5000}") long transferTimeoutMs,
+            @Value("${banking.gateway.verify-timeout-ms:5000}") long verifyTimeoutMs,
+            @Value("${banking.gateway.balance-timeout-ms:2000}") long balanceTimeoutMs,
+            @Value("${banking.gateway.status-timeout-ms:2000}") long statusTimeoutMs,
+            @Value("${banking.gateway.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${banking.gateway.circuit.open-duration-ms:30000}") long openDurationMs) {
+        this(clients.getIfAvailable(() -> {
+            throw new IllegalStateException("No banking gateway client for banking.gateway.mode='" + mode
+                    + "'. Supported modes: simulated.");
+        }), meterRegistry, maxConcurrentCalls, transferTimeoutMs, verifyTimeoutMs, balanceTimeoutMs,
+                statusTimeoutMs, failureThreshold, openDurationMs);
+    }
+
+    BankingGateway(BankingGatewayClient client, MeterRegistry meterRegistry, int maxConcurrentCalls,
+            long transferTimeoutMs, long verifyTimeoutMs, long balanceTimeoutMs, long statusTimeoutMs,
+            int failureThreshold, long openDurationMs) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new GatewayCircuitBreaker(failureThreshold, openDurationMs);
+        this.transferTimeoutMs = transferTimeoutMs;
+        this.verifyTimeoutMs = verifyTimeoutMs;
+        this.balanceTimeoutMs = balanceTimeoutMs;
+        this.statusTimeoutMs = statusTimeoutMs;
+
+        // Sized to the bulkhead: a permit is only released once the worker has
+        // finished, so timed-out calls still hold their slot until they return.
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentCalls);
+        executor.setMaxPoolSize(maxConcurrentCalls);
+        executor.setQueueCapacity(maxConcurrentCalls);
+        executor.setThreadNamePrefix("BankGateway-");
+        executor.initialize();
+
+        meterRegistry.gauge("banking.gateway.bulkhead.available", bulkhead, Semaphore::availablePermits);
+        meterRegistry.gauge("banking.gateway.circuit.open", circuitBreaker,
+                cb -> cb.getState() == GatewayCircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
     /**
-     * Simulates an external API call to authorize and execute a transfer
-     * 
-     * @return A transaction reference ID from the "Bank"
+     * Authorize and execute a transfer with the external bank
+     *
+     * @param reference our id for the transfer, used to look it up later
+     * @return A future for the transaction reference ID from the bank
      */
-    public String executeExternalTransfer(String fromAccount, String toAccount, BigDecimal amount) {
-        logger.info("Initiating external bank transfer: {} -> {} for amount {}", fromAccount, toAccount, amount);
+    public CompletableFuture<String> executeExternalTransferAsync(String reference, String fromAccount,
+            String toAccount, BigDecimal amount) {
+        return call(OP_TRANSFER, transferTimeoutMs,
+                () -> client.transfer(reference, fromAccount, toAccount, amount));
+    }
 
-        // Simulating network latency of a real SDK/API call
-        try {
-            Thread.sleep(800);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    /**
+     * Ask the bank whether a transfer we sent was executed
+     *
+     * @return A future for the bank's reference ID, or null if the bank has no
+     *         executed transfer under {@code reference}
+     */
+    public CompletableFuture<String> findTransferAsync(String reference) {
+        return call(OP_STATUS, statusTimeoutMs, () -> client.findTransfer(reference));
+    }
 
-        // Logic check: Any amount > 100,000 might be flagged/fail in a real scenario
-        if (amount.compareTo(new BigDecimal("100000.00")) > 0) {
-            logger.error("Transfer rejected by External Bank: Amount exceeds limit");
-            throw new RuntimeException("External Banking Error: Transaction limit exceeded");
-        }
+    /**
+     * Verify bank account details with the external banking API
+     */
+    public CompletableFuture<Boolean> verifyBankAccountAsync(String accountNumber, String ifscCode,
+            String accountHolderName) {
+        return call(OP_VERIFY, verifyTimeoutMs,
+                () -> client.verifyAccount(accountNumber, ifscCode, accountHolderName));
+    }
 
-        String bankRefId = "BNK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        logger.info("External bank transfer successful. Ref: {}", bankRefId);
+    /**
+     * Fetch the current balance from the external bank
+     */
+    public CompletableFuture<BigDecimal> fetchBalanceAsync(String accountNumber) {
+        return call(OP_BALANCE, balanceTimeoutMs, () -> client.fetchBalance(accountNumber));
+    }
 
-        return bankRefId;
+    /**
+     * Blocking variant of {@link #executeExternalTransferAsync}
+     *
+     * @return A transaction reference ID from the "Bank"
+     */
+    public String executeExternalTransfer(String reference, String fromAccount, String toAccount,
+            BigDecimal amount) {
+        return await(executeExternalTransferAsync(reference, fromAccount, toAccount, amount));
+    }
+
+    /**
+     * Blocking variant of {@link #findTransferAsync}
+     */
+    public String findTransfer(String reference) {
+        return await(findTransferAsync(reference));
     }
 
     /**
@@ -53,52 +161,113 @@ public class BankingGateway {
     }
 
     /**
-     * Simulates verifying bank account details with external banking API
-     * In production, this would call NPCI or bank's verification API
-     * 
+     * Blocking variant of {@link #verifyBankAccountAsync}
+     *
      * @return true if account is valid and verified
      */
     public boolean verifyBankAccount(String accountNumber, String ifscCode, String accountHolderName) {
-        logger.info("Verifying bank account: {} with IFSC: {}", accountNumber, ifscCode);
+        return await(verifyBankAccountAsync(accountNumber, ifscCode, accountHolderName));
+    }
 
-        // Simulate API call latency
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    /**
+     * Blocking variant of {@link #fetchBalanceAsync}
+     */
+    public BigDecimal getMockBalance(String accountNumber) {
+        return await(fetchBalanceAsync(accountNumber));
+    }
 
-        // Basic validation checks (in production, this would be done by bank API)
-        if (accountNumber == null || accountNumber.length() < 9 || accountNumber.length() > 18) {
-            logger.warn("Invalid account number length");
-            return false;
-        }
+    public GatewayCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
 
-        if (ifscCode == null || ifscCode.length() != 11) {
-            logger.warn("Invalid IFSC code format");
-            return false;
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> call(String operation, long timeoutMs, Supplier<T> action) {
+        if (!bulkhead.tryAcquire()) {
+            record(operation, "bulkhead_full", 0);
+            return CompletableFuture.failedFuture(
+                    new BankingGatewayException("Bank service is busy. Please try again.", true, false, null));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            record(operation, "short_circuited", 0);
+            return CompletableFuture.failedFuture(
+                    new BankingGatewayException("Bank service is temporarily unavailable. Please try again later.",
+                            true, false, null));
         }
 
-        if (accountHolderName == null || accountHolderName.trim().isEmpty()) {
-            logger.warn("Account holder name is required");
-            return false;
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return action.get();
+                } finally {
+                    bulkhead.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            circuitBreaker.onFailure();
+            record(operation, "rejected", 0);
+            return CompletableFuture.failedFuture(
+                    new BankingGatewayException("Bank service is busy. Please try again.", true, false, e));
         }
 
-        logger.info("Bank account verification successful");
-        return true; // Simulate successful verification
+        return future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).handle((result, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                record(operation, "success", elapsed);
+                return result;
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            BankingGatewayException failure;
+            if (cause instanceof BankingGatewayException gatewayException) {
+                failure = gatewayException;
+            } else if (cause instanceof TimeoutException) {
+                failure = new BankingGatewayException("Bank did not respond in time. Please try again.", true, cause);
+            } else {
+                failure = new BankingGatewayException("External Banking Error: " + cause.getMessage(), true, cause);
+            }
+
+            if (failure.isTechnical()) {
+                circuitBreaker.onFailure();
+                logger.warn("Bank gateway {} failed after {} ms: {}", operation,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), failure.getMessage());
+            } else {
+                // The bank answered; a business rejection says nothing about its health
+                circuitBreaker.onSuccess();
+            }
+            record(operation, cause instanceof TimeoutException ? "timeout" : failure.isTechnical() ? "error" : "declined",
+                    elapsed);
+            throw failure;
+        });
     }
 
-    /**
-     * Simulates fetching the current balance from the external bank
-     * Generates a deterministic "random" balance based on account number hash
-     */
-    public BigDecimal getMockBalance(String accountNumber) {
-        if (accountNumber == null || accountNumber.isEmpty())
-            return new BigDecimal("5000.00");
+    private void record(String operation, String outcome, long elapsedNanos) {
+        Timer.builder("banking.gateway.latency")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
 
-        long hash = Math.abs(accountNumber.hashCode());
-        // Generate a value between 1,000 and 50,000
-        long value = 1000 + (hash % 49000);
-        return new BigDecimal(value + ".00");
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
     }
 }
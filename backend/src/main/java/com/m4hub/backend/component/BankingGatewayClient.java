@@ -0,0 +1,33 @@
+package com.m4hub.backend.component;
+
+import java.math.BigDecimal;
+
+/**
+ * Transport to the external bank / UPI provider. Implementations may block;
+ * {@link BankingGateway} runs them off the request thread with timeouts, a
+ * bulkhead and a circuit breaker.
+ */
+public interface BankingGatewayClient {
+
+    /**
+     * Execute a transfer. Executing the same {@code reference} again must not
+     * move money twice.
+     *
+     * @param reference the caller's id for the transfer
+     * @return A transaction reference ID from the bank
+     */
+    String transfer(String reference, String fromAccount, String toAccount, BigDecimal amount);
+
+    /**
+     * @return the bank's reference ID of the executed transfer sent under
+     *         {@code reference}, or null if there is none
+     */
+    String findTransfer(String reference);
+
+    /**
+     * @return true if account is valid and verified
+     */
+    boolean verifyAccount(String accountNumber, String ifscCode, String accountHolderName);
+
+    BigDecimal fetchBalance(String accountNumber);
+}
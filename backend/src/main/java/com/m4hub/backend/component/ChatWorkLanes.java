@@ -0,0 +1,92 @@
+package com.m4hub.backend.component;
+
+import com.m4hub.backend.util.InstrumentedExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lanes for the DB-bound STOMP events (send, read, delivered, group send).
+ * Handlers hand their work over here so the inbound channel threads only ever
+ * do cheap dispatch, and typing frames never wait behind message persistence.
+ * Work with the same key (the sender, or the message) always lands on the same
+ * single-threaded lane, so one user's messages are stored in the order sent.
+ * A full lane blocks the submitting inbound thread for up to
+ * {@code stomp.db-lane-offer-timeout-ms}, pushing back on the client without
+ * reordering; after that the work is rejected with a
+ * {@link TaskRejectedException} for the caller to report.
+ */
+@Component
+public class ChatWorkLanes {
+
+    private final ThreadPoolTaskExecutor[] lanes;
+
+    public ChatWorkLanes(MeterRegistry meterRegistry,
+            @Value("${stomp.db-lanes:4}") int laneCount,
+            @Value("${stomp.db-lane-queue-capacity:500}") int queueCapacity,
+            @Value("${stomp.db-lane-offer-timeout-ms:2000}") long offerTimeoutMs) {
+        this.lanes = new ThreadPoolTaskExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = InstrumentedExecutors.fixed("stomp-db-" + i, 1, queueCapacity,
+                    waitForSpace(offerTimeoutMs), meterRegistry);
+            lanes[i].initialize();
+        }
+    }
+
+    /**
+     * @throws TaskRejectedException if the lane stayed full for the whole timeout
+     */
+    public void submit(Object key, Runnable work) {
+        lanes[Math.floorMod(key.hashCode(), lanes.length)].execute(work);
+    }
+
+    // Running the work on the caller instead would let it overtake work already
+    // queued for the same key, and put DB calls back on the inbound threads
+    private static RejectedExecutionHandler waitForSpace(long timeoutMs) {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Chat work lane is shut down");
+            }
+            try {
+                if (!executor.getQueue().offer(task, timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new RejectedExecutionException("Chat work lane is full");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted waiting for a chat work lane", e);
+            }
+        };
+    }
+
+    /**
+     * Submit best-effort work without ever blocking the caller
+     *
+     * @return false if the lane was full and the work was dropped
+     */
+    public boolean trySubmit(Object key, Runnable work) {
+        ThreadPoolTaskExecutor lane = lanes[Math.floorMod(key.hashCode(), lanes.length)];
+        if (lane.getThreadPoolExecutor().getQueue().remainingCapacity() == 0) {
+            return false;
+        }
+        try {
+            lane.execute(work);
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolTaskExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
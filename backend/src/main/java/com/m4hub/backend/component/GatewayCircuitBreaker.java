@@ -0,0 +1,68 @@
+package com.m4hub.backend.component;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * CLOSED lets every call through; after {@code failureThreshold} technical
+ * failures in a row it goes OPEN and rejects calls for {@code openDurationMs};
+ * then a single trial call is let through (HALF_OPEN) which either closes the
+ * circuit again or re-opens it.
+ */
+public class GatewayCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public GatewayCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
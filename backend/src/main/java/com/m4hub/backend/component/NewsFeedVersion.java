@@ -0,0 +1,42 @@
+package com.m4hub.backend.component;
+
+import com.m4hub.backend.event.NewsSyncedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Version of the stored news feed, bumped only by syncs that changed it.
+ * Feed responses derive their ETag and Last-Modified from it, so clients
+ * revalidating between syncs get a 304 without the database being read.
+ * The version starts at boot time; after a restart clients refetch once.
+ */
+@Component
+public class NewsFeedVersion {
+
+    // Last-Modified has one-second resolution, so keep the version on that grid
+    private volatile Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    // After NewsCacheWarmer, so the new version only ever serves fresh bodies
+    @Order(2)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNewsSynced(NewsSyncedEvent event) {
+        if (event.changedContent()) {
+            Instant syncedAt = event.getSyncedAt().truncatedTo(ChronoUnit.SECONDS);
+            // Two changing syncs within a second still need distinct versions
+            lastModified = syncedAt.isAfter(lastModified) ? syncedAt : lastModified.plusSeconds(1);
+        }
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public String getETag() {
+        return "\"news-" + lastModified.getEpochSecond() + "\"";
+    }
+}
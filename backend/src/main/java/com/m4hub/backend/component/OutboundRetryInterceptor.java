@@ -0,0 +1,97 @@
+package com.m4hub.backend.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries idempotent outbound calls (GET, HEAD) that failed with an I/O error
+ * or a status the upstream expects to be retried (429, 502, 503, 504).
+ * Delays grow exponentially and are fully jittered, so clients that failed
+ * together do not come back together. Each retry counts towards
+ * {@code http.client.retries}, tagged by host.
+ */
+@Component
+public class OutboundRetryInterceptor implements ClientHttpRequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(OutboundRetryInterceptor.class);
+
+    private static final Set<HttpMethod> IDEMPOTENT = Set.of(HttpMethod.GET, HttpMethod.HEAD);
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public OutboundRetryInterceptor(MeterRegistry meterRegistry,
+            @Value("${http.client.max-retries:2}") int maxRetries,
+            @Value("${http.client.retry-base-delay-ms:200}") long baseDelayMs,
+            @Value("${http.client.retry-max-delay-ms:2000}") long maxDelayMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!IDEMPOTENT.contains(request.getMethod())) {
+            return execution.execute(request, body);
+        }
+
+        for (int attempt = 0;; attempt++) {
+            boolean lastAttempt = attempt >= maxRetries;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (lastAttempt || !RETRYABLE_STATUSES.contains(response.getStatusCode().value())) {
+                    return response;
+                }
+                logger.debug("{} {} returned {}, retrying", request.getMethod(), request.getURI(),
+                        response.getStatusCode().value());
+                response.close();
+            } catch (InterruptedIOException e) {
+                // Read timeouts are retried; an interrupted thread is not
+                if (lastAttempt || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.debug("{} {} timed out, retrying", request.getMethod(), request.getURI());
+            } catch (IOException e) {
+                if (lastAttempt) {
+                    throw e;
+                }
+                logger.debug("{} {} failed ({}), retrying", request.getMethod(), request.getURI(), e.getMessage());
+            }
+            retryCounter(request).increment();
+            backOff(attempt);
+        }
+    }
+
+    private Counter retryCounter(HttpRequest request) {
+        String host = request.getURI().getHost();
+        return meterRegistry.counter("http.client.retries", "host", host != null ? host : "none");
+    }
+
+    private void backOff(int attempt) throws IOException {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before a retry");
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.m4hub.backend.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m4hub.backend.config.CacheConfig;
+import com.m4hub.backend.event.SongCatalogChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON bodies of read-only endpoints that are identical for every
+ * user, kept both plain and gzipped so a hit costs neither Jackson nor the
+ * compressor. Keys are {@code <namespace>:<data version>:<endpoint...>} for
+ * data that changes, so a body built from old data by a request still in
+ * flight is stored under the old version and never served for the new one.
+ * Dropping a namespace when its data changes only frees the memory.
+ */
+@Component
+public class ResponseBytesCache {
+
+    public static final String NEWS = "news";
+    public static final String MUSIC = "music";
+    public static final String PAYMENTS = "payments";
+
+    // Below this the gzip header and lookup cost more than they save
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    private final Cache cache;
+    private final ObjectMapper objectMapper;
+
+    public ResponseBytesCache(CacheManager cacheManager, ObjectMapper objectMapper) {
+        this.cache = cacheManager.getCache(CacheConfig.RESPONSE_BYTES);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Completes {@code builder} with the cached body for {@code key}, building
+     * it from {@code body} on a miss. Concurrent misses for one key serialize once.
+     */
+    public ResponseEntity<byte[]> respond(WebRequest request, ResponseEntity.BodyBuilder builder, String key,
+            Supplier<?> body) {
+        Entry entry = cache.get(key, () -> serialize(body.get()));
+        builder.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (entry.gzipped != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzipped);
+        }
+        return builder.body(entry.json);
+    }
+
+    public void evictNamespace(String namespace) {
+        String prefix = namespace + ":";
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            nativeCache.asMap().keySet().removeIf(key -> key.toString().startsWith(prefix));
+        } else {
+            cache.clear();
+        }
+    }
+
+    @Order(2)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongCatalogChanged(SongCatalogChangedEvent event) {
+        evictNamespace(MUSIC);
+    }
+
+    private Entry serialize(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Entry(json, json.length >= MIN_GZIP_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cached response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // "gzip" or "*" listed without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry {
+        private final byte[] json;
+        private final byte[] gzipped; // null when not worth compressing
+
+        private Entry(byte[] json, byte[] gzipped) {
+            this.json = json;
+            this.gzipped = gzipped;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.m4hub.backend.component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.m4hub.backend.exception.BankingGatewayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated Banking Gateway / UPI SDK
+ * In a real production environment, this would integrate with NPCI (UPI)
+ * or a Payment Gateway API (Razorpay, Stripe, etc.)
+ *
+ * Latency per call is the operation's base latency plus a uniform jitter; a
+ * configurable fraction of calls take the slow-call latency instead and a
+ * configurable fraction fail outright, so timeouts and the circuit breaker can
+ * be exercised locally.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.gateway.mode", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedBankingGatewayClient implements BankingGatewayClient {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedBankingGatewayClient.class);
+
+    @Value("${banking.simulator.transfer-latency-ms:800}")
+    private long transferLatencyMs;
+
+    @Value("${banking.simulator.verify-latency-ms:1000}")
+    private long verifyLatencyMs;
+
+    @Value("${banking.simulator.balance-latency-ms:0}")
+    private long balanceLatencyMs;
+
+    @Value("${banking.simulator.jitter-ms:0}")
+    private long jitterMs;
+
+    @Value("${banking.simulator.slow-call-rate:0.0}")
+    private double slowCallRate;
+
+    @Value("${banking.simulator.slow-call-latency-ms:10000}")
+    private long slowCallLatencyMs;
+
+    @Value("${banking.simulator.failure-rate:0.0}")
+    private double failureRate;
+
+    // The bank's record of executed transfers, by caller reference
+    private final Cache<String, String> executed = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .maximumSize(100000)
+            .build();
+
+    @Override
+    public String transfer(String reference, String fromAccount, String toAccount, BigDecimal amount) {
+        logger.info("Initiating external bank transfer {}: {} -> {} for amount {}", reference, fromAccount, toAccount,
+                amount);
+        String previous = executed.getIfPresent(reference);
+        if (previous != null) {
+            return previous;
+        }
+        simulateCall(transferLatencyMs);
+
+        // Logic check: Any amount > 100,000 might be flagged/fail in a real scenario
+        if (amount.compareTo(new BigDecimal("100000.00")) > 0) {
+            logger.error("Transfer rejected by External Bank: Amount exceeds limit");
+            throw new BankingGatewayException("External Banking Error: Transaction limit exceeded", false);
+        }
+
+        String bankRefId = "BNK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        executed.put(reference, bankRefId);
+        logger.info("External bank transfer successful. Ref: {}", bankRefId);
+
+        return bankRefId;
+    }
+
+    @Override
+    public String findTransfer(String reference) {
+        simulateCall(balanceLatencyMs);
+        return executed.getIfPresent(reference);
+    }
+
+    @Override
+    public boolean verifyAccount(String accountNumber, String ifscCode, String accountHolderName) {
+        logger.info("Verifying bank account: {} with IFSC: {}", accountNumber, ifscCode);
+        simulateCall(verifyLatencyMs);
+
+        // Basic validation checks (in production, this would be done by bank API)
+        if (accountNumber == null || accountNumber.length() < 9 || accountNumber.length() > 18) {
+            logger.warn("Invalid account number length");
+            return false;
+        }
+
+        if (ifscCode == null || ifscCode.length() != 11) {
+            logger.warn("Invalid IFSC code format");
+            return false;
+        }
+
+        if (accountHolderName == null || accountHolderName.trim().isEmpty()) {
+            logger.warn("Account holder name is required");
+            return false;
+        }
+
+        logger.info("Bank account verification successful");
+        return true; // Simulate successful verification
+    }
+
+    /**
+     * Generates a deterministic "random" balance based on account number hash
+     */
+    @Override
+    public BigDecimal fetchBalance(String accountNumber) {
+        simulateCall(balanceLatencyMs);
+
+        if (accountNumber == null || accountNumber.isEmpty())
+            return new BigDecimal("5000.00");
+
+        long hash = Math.abs(accountNumber.hashCode());
+        // Generate a value between 1,000 and 50,000
+        long value = 1000 + (hash % 49000);
+        return new BigDecimal(value + ".00");
+    }
+
+    private void simulateCall(long baseLatencyMs) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = baseLatencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        if (slowCallRate > 0 && random.nextDouble() < slowCallRate) {
+            latency = slowCallLatencyMs;
+        }
+
+        // Simulating network latency of a real SDK/API call
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BankingGatewayException("Bank call interrupted", true, e);
+            }
+        }
+
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            throw new BankingGatewayException("External Banking Error: Service unavailable", true);
+        }
+    }
+}
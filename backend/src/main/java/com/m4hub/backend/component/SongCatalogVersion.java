@@ -0,0 +1,31 @@
+package com.m4hub.backend.component;
+
+import com.m4hub.backend.event.SongCatalogChangedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the song catalog, bumped whenever songs are seeded or synced.
+ * Cached catalog responses are keyed by it, so a body built from the old
+ * catalog can never be served once the new one is committed.
+ */
+@Component
+public class SongCatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Before ResponseBytesCache drops the old entries
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongCatalogChanged(SongCatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public long get() {
+        return version.get();
+    }
+}
@@ -0,0 +1,124 @@
+package com.m4hub.backend.component;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Hashes and verifies UPI PINs.
+ * New hashes are salted PBKDF2-HMAC-SHA256 stored as
+ * {@code pbkdf2$<iterations>$<salt>$<hash>}; the iteration count is tunable so
+ * the cost can be sized against the payment latency budget. Legacy unsalted
+ * SHA-256 hex hashes still verify and are reported by {@link #needsRehash} so
+ * callers can upgrade them on the next successful check.
+ * Comparisons are constant-time and the JCA instances are reused per thread.
+ */
+@Component
+public class UpiPinHasher {
+
+    private static final String PREFIX = "pbkdf2";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final ThreadLocal<SecretKeyFactory> KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    });
+
+    private static final ThreadLocal<MessageDigest> LEGACY_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    public UpiPinHasher(@Value("${payments.pin.kdf-iterations:100000}") int iterations) {
+        this.iterations = iterations;
+    }
+
+    public String hash(String pin) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(pin, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    public boolean matches(String pin, String storedHash) {
+        if (pin == null || storedHash == null) {
+            return false;
+        }
+        if (!storedHash.startsWith(PREFIX + "$")) {
+            return matchesLegacy(pin, storedHash);
+        }
+
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(pin, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * True for legacy hashes and for hashes made with a lower iteration count
+     * than currently configured.
+     */
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX + "$")) {
+            return true;
+        }
+        String[] parts = storedHash.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private boolean matchesLegacy(String pin, String storedHex) {
+        byte[] expected;
+        try {
+            expected = HexFormat.of().parseHex(storedHex);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        MessageDigest digest = LEGACY_DIGEST.get();
+        digest.reset();
+        byte[] actual = digest.digest(pin.getBytes(StandardCharsets.UTF_8));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private static byte[] pbkdf2(String pin, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(pin.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return KEY_FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Security error while protecting PIN", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -1,14 +1,88 @@
 package com.m4hub.backend.config;
 
+import com.m4hub.backend.component.OutboundRetryInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound HTTP for every integration (news feed, Jamendo, and any HTTP bank
+ * client). Connections are pooled with a per-host cap, so one slow upstream
+ * can hold at most {@code http.client.max-connections-per-host} of them;
+ * callers beyond that wait at most the pool-acquire timeout. Every phase of a
+ * call is time-bounded, and idempotent calls are retried with jittered backoff.
+ */
 @Configuration
 public class AppConfig {
 
+    @Value("${http.client.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${http.client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${http.client.pool-acquire-timeout-ms:2000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${http.client.max-total-connections:50}")
+    private int maxTotalConnections;
+
+    @Value("${http.client.max-connections-per-host:10}")
+    private int maxConnectionsPerHost;
+
+    @Bean
+    public PoolingHttpClientConnectionManager outboundConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+        // httpcomponents.httpclient.pool.* gauges: leased, available, pending
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "outbound").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(30, TimeUnit.SECONDS))
+                // Retries are ours, with jitter, in OutboundRetryInterceptor
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    // Built from Boot's RestTemplateBuilder so calls are timed as http.client.requests
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient outboundHttpClient,
+            OutboundRetryInterceptor retryInterceptor) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(outboundHttpClient))
+                .additionalInterceptors(retryInterceptor)
+                .build();
     }
 }
@@ -0,0 +1,43 @@
+package com.m4hub.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+/**
+ * Bounded Caffeine caches with a policy per cache name.
+ * Policies are Caffeine spec strings under {@code caching.specs.<name>}; any
+ * cache not listed there gets {@code caching.default-spec}. All caches record
+ * stats, which actuator publishes as cache.* metrics.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String NEWS_LATEST = "newsLatest";
+    public static final String NEWS_BY_CATEGORY = "newsByCategory";
+    public static final String RESPONSE_BYTES = "responseBytes";
+
+    private static final String DEFAULT_SPEC = "maximumSize=1000,expireAfterWrite=10m";
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        Binder binder = Binder.get(environment);
+        String defaultSpec = binder.bind("caching.default-spec", String.class).orElse(DEFAULT_SPEC);
+        Map<String, String> specs = binder.bind("caching.specs", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.from(defaultSpec).recordStats());
+        // Registered up front so their metrics are bound at startup
+        specs.forEach((name, spec) -> cacheManager.registerCustomCache(name,
+                Caffeine.from(spec).recordStats().build()));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,99 @@
+package com.m4hub.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * How blocking work is run. {@code spring.threads.virtual.enabled} is the one
+ * switch: on a Java 21+ runtime Boot then serves Tomcat requests on virtual
+ * threads, and the {@code @Async} and {@code @Scheduled} executors below run
+ * each task on a virtual thread. The build targets Java 17, where the switch
+ * is ignored and the bounded platform pools are used.
+ *
+ * The scheduler is declared here rather than left to Boot because the STOMP
+ * broker registers its own TaskScheduler, which makes Boot's scheduler
+ * auto-configuration back off; {@code @Scheduled} jobs would otherwise share
+ * the broker's heartbeat scheduler.
+ */
+@Configuration
+public class ExecutionConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    @Value("${execution.async.core-pool-size:5}")
+    private int asyncCorePoolSize;
+
+    @Value("${execution.async.max-pool-size:10}")
+    private int asyncMaxPoolSize;
+
+    @Value("${execution.async.queue-capacity:25}")
+    private int asyncQueueCapacity;
+
+    @Value("${spring.task.scheduling.pool.size:4}")
+    private int schedulingPoolSize;
+
+    // Caps in-flight @Async tasks in virtual mode, where threads are no longer the limit
+    @Value("${execution.async.virtual-concurrency-limit:200}")
+    private int virtualConcurrencyLimit;
+
+    @Bean
+    public TaskExecutor taskExecutor() {
+        if (virtualThreadsEnabled()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("M4HubAsync-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(virtualConcurrencyLimit);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncCorePoolSize);
+        executor.setMaxPoolSize(asyncMaxPoolSize);
+        executor.setQueueCapacity(asyncQueueCapacity);
+        executor.setThreadNamePrefix("M4HubAsync-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Picked by @EnableScheduling by name, ahead of the broker's scheduler
+    @Bean
+    public TaskScheduler taskScheduler() {
+        if (virtualThreadsEnabled()) {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setThreadNamePrefix("M4HubScheduled-");
+            scheduler.setVirtualThreads(true);
+            return scheduler;
+        }
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulingPoolSize);
+        scheduler.setThreadNamePrefix("M4HubScheduled-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * True only when virtual threads were asked for and the runtime has them
+     */
+    public boolean virtualThreadsEnabled() {
+        if (!virtualThreadsRequested) {
+            return false;
+        }
+        if (Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "using platform thread pools", Runtime.version().feature());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.m4hub.backend.config;
+
+import com.m4hub.backend.model.User;
+import com.m4hub.backend.service.AuthService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions. The JWT in the CONNECT frame's Authorization
+ * header is checked once, and the user is bound to the session as a
+ * {@link StompPrincipal}; every later frame carries it, so handlers take the
+ * sender from the session instead of the payload and without a lookup.
+ * Subscriptions to per-user queues must go through /user/queue/..., which
+ * only ever resolves to the subscriber's own sessions, and clients may only
+ * SEND to /app/... handlers; sending straight to a broker destination would
+ * skip them and let a client post as anyone.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final AuthService authService;
+
+    public StompAuthChannelInterceptor(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            User user = authService.getUserFromToken(accessor.getFirstNativeHeader("Authorization"));
+            if (user == null) {
+                throw new MessageDeliveryException("Unauthorized: Invalid or missing token");
+            }
+            String displayName = user.getName() != null ? user.getName() : user.getUsername();
+            accessor.setUser(new StompPrincipal(user.getId(), displayName));
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            String destination = accessor.getDestination();
+            if (destination == null || !destination.startsWith("/app/")) {
+                throw new MessageDeliveryException("Clients may only send to /app destinations");
+            }
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith("/queue/")) {
+                throw new MessageDeliveryException("Subscribe to /user" + destination + " instead");
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,41 @@
+package com.m4hub.backend.config;
+
+import java.security.Principal;
+
+/**
+ * The authenticated user of a STOMP session, bound once at CONNECT.
+ * {@link #getName()} is the user id, which is what user destinations
+ * ({@code convertAndSendToUser}) resolve against.
+ */
+public class StompPrincipal implements Principal {
+    private final Long userId;
+    private final String displayName;
+
+    public StompPrincipal(Long userId, String displayName) {
+        this.userId = userId;
+        this.displayName = displayName;
+    }
+
+    /**
+     * The user id of a session principal bound by {@link StompAuthChannelInterceptor}
+     */
+    public static Long userIdOf(Principal principal) {
+        if (principal instanceof StompPrincipal stompPrincipal) {
+            return stompPrincipal.userId;
+        }
+        throw new IllegalStateException("WebSocket session is not authenticated");
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -1,6 +1,10 @@
 package com.m4hub.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -8,6 +12,13 @@ import java.nio.file.Paths;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Value("${web.async.max-pool-size:8}")
+    private int asyncMaxPoolSize;
+
+    @Value("${web.async.timeout-ms:600000}")
+    private long asyncTimeoutMs;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Expose the 'uploads' directory to the web, allowing access to uploaded files
@@ -16,4 +27,26 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations(uploadPath);
     }
+
+    // Streaming responses (statement exports) are written from this pool rather
+    // than holding a servlet request thread for the whole download. Callers cap
+    // their own concurrency below the pool size, so there is no queue: a task
+    // either gets a thread at once or is rejected.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncMaxPoolSize);
+        executor.setMaxPoolSize(asyncMaxPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("M4HubStream-");
+        executor.initialize();
+        return executor;
+    }
 }
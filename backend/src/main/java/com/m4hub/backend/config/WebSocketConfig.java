@@ -1,6 +1,10 @@
 package com.m4hub.backend.config;
 
+import com.m4hub.backend.util.InstrumentedExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -10,12 +14,34 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final MeterRegistry meterRegistry;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Value("${stomp.inbound.pool-size:8}")
+    private int inboundPoolSize;
+
+    @Value("${stomp.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${stomp.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${stomp.outbound.queue-capacity:1000}")
+    private int outboundQueueCapacity;
+
+    public WebSocketConfig(MeterRegistry meterRegistry, StompAuthChannelInterceptor stompAuthChannelInterceptor) {
+        this.meterRegistry = meterRegistry;
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to send messages to clients
         config.enableSimpleBroker("/topic", "/queue");
         // Prefix for messages from clients
         config.setApplicationDestinationPrefixes("/app");
+        // convertAndSendToUser(userId, "/queue/x") reaches that user's /user/queue/x subscriptions
+        config.setUserDestinationPrefix("/user");
     }
 
     @Override
@@ -24,5 +50,27 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*") // Allow all origins for development
                 .withSockJS(); // Enable SockJS fallback options
+
+        // Each session's frames are handled one after another, so a user's
+        // messages reach their ordered ChatWorkLanes lane in the order sent
+        registry.setPreserveReceiveOrder(true);
+    }
+
+    // Inbound threads only dispatch; DB-bound handlers move their work onto
+    // ChatWorkLanes, so cheap frames such as typing are never stuck behind it.
+    // These stay bounded platform pools in virtual-thread mode too: the
+    // channels only accept a ThreadPoolTaskExecutor, their threads rarely block
+    // on I/O, and the fixed size and queue are what bound a burst of frames.
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+        registration.taskExecutor(InstrumentedExecutors.fixed("stomp-inbound", inboundPoolSize,
+                inboundQueueCapacity, null, meterRegistry));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(InstrumentedExecutors.fixed("stomp-outbound", outboundPoolSize,
+                outboundQueueCapacity, null, meterRegistry));
     }
 }
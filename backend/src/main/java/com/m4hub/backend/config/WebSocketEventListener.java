@@ -5,7 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
-import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import java.util.Map;
 import java.util.Set;
@@ -34,87 +34,61 @@ public class WebSocketEventListener {
         userSessions.clear();
     }
 
+    // SessionConnected rather than SessionConnect: the principal is bound by
+    // StompAuthChannelInterceptor after the CONNECT event has been published
     @EventListener
-    public void handleWebSocketConnectListener(SessionConnectEvent event) {
+    public void handleWebSocketConnectListener(SessionConnectedEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-        String userIdStr = headerAccessor.getFirstNativeHeader("userId");
         String sessionId = headerAccessor.getSessionId();
+        if (!(event.getUser() instanceof StompPrincipal principal) || sessionId == null) {
+            logger.debug("Connected session {} has no authenticated user", sessionId);
+            return;
+        }
 
-        logger.debug("Connection attempt. UserId header: {}, SessionId: {}", userIdStr, sessionId);
-
-        if (userIdStr != null && sessionId != null) {
-            try {
-                Long userId = Long.parseLong(userIdStr);
-
-                // Store userId in session attributes for disconnect handling
-                Map<String, Object> attributes = headerAccessor.getSessionAttributes();
-                if (attributes != null) {
-                    attributes.put("userId", userIdStr);
-
-                    // Add session to tracking
-                    userSessions.computeIfAbsent(userId, k -> Collections.synchronizedSet(new HashSet<>()))
-                            .add(sessionId);
-
-                    int activeCount = userSessions.get(userId).size();
-                    logger.info("User {} connected. Session: {}. Active sessions: {}", userId, sessionId, activeCount);
-
-                    // If it's the first session, update status to ACTIVE
-                    if (activeCount == 1) {
-                        updateUserStatus(userId, true);
-                    } else {
-                        // Already active, but we can still broadcast to ensure consistency
-                        broadcastPresence(userId, true);
-                    }
-                } else {
-                    logger.error("Session attributes are null in ConnectEvent. Cannot store userId.");
-                }
-
-            } catch (NumberFormatException e) {
-                logger.error("Invalid userId in connect header: {}", userIdStr);
-            }
+        Long userId = principal.getUserId();
+        // Add session to tracking
+        Set<String> sessions = userSessions.computeIfAbsent(userId,
+                k -> Collections.synchronizedSet(new HashSet<>()));
+        sessions.add(sessionId);
+
+        int activeCount = sessions.size();
+        logger.info("User {} connected. Session: {}. Active sessions: {}", userId, sessionId, activeCount);
+
+        // If it's the first session, update status to ACTIVE
+        if (activeCount == 1) {
+            updateUserStatus(userId, true);
         } else {
-            logger.debug("No userId header or sessionId in connection.");
+            // Already active, but we can still broadcast to ensure consistency
+            broadcastPresence(userId, true);
         }
     }
 
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
-        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-        String sessionId = headerAccessor.getSessionId();
-        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
-
-        if (attributes != null && sessionId != null) {
-            String userIdStr = (String) attributes.get("userId");
-            if (userIdStr != null) {
-                try {
-                    Long userId = Long.parseLong(userIdStr);
-
-                    // Remove session from tracking
-                    Set<String> sessions = userSessions.get(userId);
-                    if (sessions != null) {
-                        sessions.remove(sessionId);
-                        int remainingCount = sessions.size();
-                        logger.info("User {} disconnected session {}. Remaining sessions: {}", userId, sessionId,
-                                remainingCount);
-
-                        // If no more sessions, update status to OFFLINE
-                        if (remainingCount == 0) {
-                            userSessions.remove(userId);
-                            updateUserStatus(userId, false);
-                        }
-                    } else {
-                        logger.warn("No session tracking found for user {} during disconnect", userId);
-                        // Fallback: update status to false just in case
-                        updateUserStatus(userId, false);
-                    }
-                } catch (NumberFormatException e) {
-                    logger.error("Invalid userId in session attributes: {}", userIdStr);
-                }
-            } else {
-                logger.debug("No userId found in session attributes during disconnect.");
+        String sessionId = event.getSessionId();
+        if (!(event.getUser() instanceof StompPrincipal principal) || sessionId == null) {
+            logger.debug("Disconnected session {} had no authenticated user", sessionId);
+            return;
+        }
+
+        Long userId = principal.getUserId();
+        // Remove session from tracking
+        Set<String> sessions = userSessions.get(userId);
+        if (sessions != null) {
+            sessions.remove(sessionId);
+            int remainingCount = sessions.size();
+            logger.info("User {} disconnected session {}. Remaining sessions: {}", userId, sessionId,
+                    remainingCount);
+
+            // If no more sessions, update status to OFFLINE
+            if (remainingCount == 0) {
+                userSessions.remove(userId);
+                updateUserStatus(userId, false);
             }
         } else {
-            logger.debug("Session attributes or sessionId are null during disconnect.");
+            logger.warn("No session tracking found for user {} during disconnect", userId);
+            // Fallback: update status to false just in case
+            updateUserStatus(userId, false);
         }
     }
 
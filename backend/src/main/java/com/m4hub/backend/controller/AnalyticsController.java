@@ -2,16 +2,21 @@ package com.m4hub.backend.controller;
 
 import com.m4hub.backend.dto.ApiResponse;
 import com.m4hub.backend.dto.HubAnalyticsDto;
+import com.m4hub.backend.dto.TabUsageEvent;
 import com.m4hub.backend.model.User;
 import com.m4hub.backend.service.AuthService;
 import com.m4hub.backend.service.TabUsageService;
 import com.m4hub.backend.service.AnalyticsService;
+import com.m4hub.backend.service.RegistrationMetricsService;
+import com.m4hub.backend.service.TabUsageIngestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +32,12 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private TabUsageIngestionService tabUsageIngestionService;
+
+    @Autowired
+    private RegistrationMetricsService registrationMetricsService;
+
     @Autowired
     private AuthService authService;
 
@@ -38,17 +49,43 @@ public class AnalyticsController {
         return user;
     }
 
+    /**
+     * Accepts a single {tabName, durationSeconds} ping or a batch
+     * {events: [{tabName, durationSeconds}, ...]}. Events are queued and
+     * written asynchronously, so this returns 202 without touching the database.
+     */
     @PostMapping("/log")
     public ResponseEntity<?> logUsage(
             @RequestHeader("Authorization") String authHeader,
             @RequestBody Map<String, Object> request) {
         try {
-            User user = getUserFromToken(authHeader);
-            String tabName = (String) request.get("tabName");
-            Long durationSeconds = Long.valueOf(request.get("durationSeconds").toString());
+            Long userId = authService.getUserIdFromToken(authHeader);
+            if (userId == null) {
+                throw new RuntimeException("Invalid or expired session token");
+            }
 
-            tabUsageService.logUsage(user, tabName, durationSeconds);
-            return ResponseEntity.ok(Map.of("success", true));
+            // The whole batch is parsed first, so a bad event rejects it before any is queued
+            List<?> events = request.get("events") instanceof List<?> list ? list : List.of(request);
+            Instant now = Instant.now();
+            List<TabUsageEvent> parsed = new ArrayList<>(events.size());
+            for (Object item : events) {
+                if (!(item instanceof Map<?, ?> event) || event.get("durationSeconds") == null) {
+                    continue;
+                }
+                Object tabName = event.get("tabName");
+                long durationSeconds = Long.parseLong(event.get("durationSeconds").toString());
+                parsed.add(new TabUsageEvent(userId,
+                        tabName != null ? tabName.toString().toLowerCase() : "unknown", durationSeconds, now));
+            }
+
+            int accepted = 0;
+            for (TabUsageEvent usage : parsed) {
+                if (tabUsageIngestionService.offer(usage)) {
+                    accepted++;
+                }
+            }
+
+            return ResponseEntity.accepted().body(Map.of("success", true, "accepted", accepted));
         } catch (Exception e) {
             logger.error("Error logging usage", e);
             return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
@@ -87,6 +124,12 @@ public class AnalyticsController {
 
     @GetMapping("/registrations")
     public ResponseEntity<Map<String, Long>> getRegistrationStats() {
-        return ResponseEntity.ok(analyticsService.getRegistrationStats());
+        return ResponseEntity.ok(registrationMetricsService.getTotals());
+    }
+
+    @GetMapping("/registrations/daily")
+    public ResponseEntity<List<Map<String, Object>>> getDailyRegistrations(
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(registrationMetricsService.getDailyBreakdown(days));
     }
 }
@@ -120,4 +120,21 @@ public class AuthController {
                     new AuthResponse(false, "An unexpected error occurred. Please try again later."));
         }
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@RequestHeader("Authorization") String authHeader) {
+        try {
+            com.m4hub.backend.model.User user = authService.getUserFromToken(authHeader);
+            if (user == null) {
+                return ResponseEntity.status(401).body(new AuthResponse(false, "Invalid or expired session token"));
+            }
+
+            authService.endSession(user);
+            return ResponseEntity.ok(new AuthResponse(true, "Logged out successfully"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(
+                    new AuthResponse(false, "An unexpected error occurred. Please try again later."));
+        }
+    }
 }
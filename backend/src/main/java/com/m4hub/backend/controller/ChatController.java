@@ -1,18 +1,23 @@
 package com.m4hub.backend.controller;
 
+import com.m4hub.backend.component.ChatWorkLanes;
+import com.m4hub.backend.config.StompPrincipal;
 import com.m4hub.backend.model.ChatMessage;
 import com.m4hub.backend.model.FriendRequest;
 import com.m4hub.backend.model.User;
 import com.m4hub.backend.repository.ChatMessageRepository;
 import com.m4hub.backend.service.AuthService;
 import com.m4hub.backend.service.ChatService;
+import com.m4hub.backend.service.TypingIndicatorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 
@@ -34,6 +39,12 @@ public class ChatController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private ChatWorkLanes chatWorkLanes;
+
+    @Autowired
+    private TypingIndicatorService typingIndicatorService;
+
     // --- Friend Requests ---
 
     @PostMapping("/request/send")
@@ -161,60 +172,106 @@ public class ChatController {
     }
 
     // --- WebSocket Handlers ---
+    // The sender is always the session's principal, never an id from the payload.
+    // Handlers that touch the database parse the frame here and hand the work
+    // to ChatWorkLanes; typing stays on the inbound thread
 
     @MessageMapping("/chat.send")
-    public void sendMessageViaWebSocket(@Payload Map<String, Object> payload) {
+    public void sendMessageViaWebSocket(@Payload Map<String, Object> payload, Principal principal) {
         try {
-            Long senderId = Long.valueOf(payload.get("senderId").toString());
+            Long senderId = StompPrincipal.userIdOf(principal);
             Long receiverId = Long.valueOf(payload.get("receiverId").toString());
             String content = (String) payload.get("content");
             String messageType = payload.containsKey("messageType") ? (String) payload.get("messageType") : "TEXT";
             String mediaUrl = payload.containsKey("mediaUrl") ? (String) payload.get("mediaUrl") : null;
 
-            chatService.sendMessage(senderId, receiverId, content, messageType, mediaUrl);
+            submitOrReport(senderId, "chat.send", senderId, () -> {
+                try {
+                    chatService.sendMessage(senderId, receiverId, content, messageType, mediaUrl);
+                } catch (Exception e) {
+                    logger.error("Error sending message via WebSocket", e);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error sending message via WebSocket", e);
         }
     }
 
+    // A lane that stays full rejects the work; the client is told so it can
+    // resend instead of the frame vanishing
+    private void submitOrReport(Long userId, String action, Object key, Runnable work) {
+        try {
+            chatWorkLanes.submit(key, work);
+        } catch (TaskRejectedException e) {
+            logger.warn("Rejected {} from user {}: {}", action, userId, e.getMessage());
+            messagingTemplate.convertAndSendToUser(String.valueOf(userId), "/queue/errors", Map.of(
+                    "action", action,
+                    "error", "The server is busy. Please try again."));
+        }
+    }
+
     @MessageMapping("/chat.typing")
-    public void handleTyping(@Payload Map<String, Object> payload) {
+    public void handleTyping(@Payload Map<String, Object> payload, Principal principal) {
         try {
-            Long userId = Long.valueOf(payload.get("userId").toString());
+            Long userId = StompPrincipal.userIdOf(principal);
             Long receiverId = Long.valueOf(payload.get("receiverId").toString());
             boolean isTyping = (boolean) payload.get("isTyping");
 
-            // Send typing indicator to receiver
-            messagingTemplate.convertAndSend("/queue/typing/" + receiverId, Map.of(
-                    "userId", userId,
-                    "isTyping", isTyping));
+            // Coalesced: the receiver only hears when typing starts or stops
+            typingIndicatorService.userTyping(userId, receiverId, isTyping);
         } catch (Exception e) {
             logger.error("Error handling typing indicator", e);
         }
     }
 
+    @MessageMapping("/group.typing")
+    public void handleGroupTyping(@Payload Map<String, Object> payload, Principal principal) {
+        try {
+            Long userId = StompPrincipal.userIdOf(principal);
+            Long groupId = Long.valueOf(payload.get("groupId").toString());
+            boolean isTyping = (boolean) payload.get("isTyping");
+
+            typingIndicatorService.groupTyping(userId, groupId, isTyping);
+        } catch (Exception e) {
+            logger.error("Error handling group typing indicator", e);
+        }
+    }
+
     @MessageMapping("/chat.delivered")
-    public void markAsDelivered(@Payload Map<String, Object> payload) {
+    public void markAsDelivered(@Payload Map<String, Object> payload, Principal principal) {
         try {
+            Long receiverId = StompPrincipal.userIdOf(principal);
             Long messageId = Long.valueOf(payload.get("messageId").toString());
-            chatService.markAsDelivered(messageId);
+            submitOrReport(receiverId, "chat.delivered", messageId, () -> {
+                try {
+                    chatService.markAsDelivered(messageId, receiverId);
+                } catch (Exception e) {
+                    logger.error("Error marking message as delivered", e);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error marking message as delivered", e);
         }
     }
 
     @MessageMapping("/chat.read")
-    public void markAsReadViaWebSocket(@Payload Map<String, Object> payload) {
+    public void markAsReadViaWebSocket(@Payload Map<String, Object> payload, Principal principal) {
         try {
+            Long readerId = StompPrincipal.userIdOf(principal);
             Long messageId = Long.valueOf(payload.get("messageId").toString());
-            Long senderId = Long.valueOf(payload.get("senderId").toString());
-
-            chatService.markMessageAsRead(messageId);
 
-            // Notify sender that message was read
-            messagingTemplate.convertAndSend("/queue/read/" + senderId, Map.of(
-                    "messageId", messageId,
-                    "readAt", java.time.Instant.now().toString()));
+            submitOrReport(readerId, "chat.read", messageId, () -> {
+                try {
+                    Long senderId = chatService.markMessageAsRead(messageId, readerId);
+
+                    // Notify sender that message was read
+                    messagingTemplate.convertAndSendToUser(String.valueOf(senderId), "/queue/read", Map.of(
+                            "messageId", messageId,
+                            "readAt", java.time.Instant.now().toString()));
+                } catch (Exception e) {
+                    logger.error("Error marking message as read via WebSocket", e);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error marking message as read via WebSocket", e);
         }
@@ -344,15 +401,21 @@ public class ChatController {
     }
 
     @MessageMapping("/group.send")
-    public void sendGroupMessage(@Payload Map<String, Object> payload) {
+    public void sendGroupMessage(@Payload Map<String, Object> payload, Principal principal) {
         try {
-            Long senderId = Long.valueOf(payload.get("senderId").toString());
+            Long senderId = StompPrincipal.userIdOf(principal);
             Long groupId = Long.valueOf(payload.get("groupId").toString());
             String content = (String) payload.get("content");
             String messageType = payload.containsKey("messageType") ? (String) payload.get("messageType") : "TEXT";
 
             // Send message and broadcast to all group members
-            chatService.sendGroupMessage(groupId, senderId, content, messageType);
+            submitOrReport(senderId, "group.send", senderId, () -> {
+                try {
+                    chatService.sendGroupMessage(groupId, senderId, content, messageType);
+                } catch (Exception e) {
+                    logger.error("Error sending group message", e);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error sending group message", e);
         }
@@ -1,5 +1,7 @@
 package com.m4hub.backend.controller;
 
+import com.m4hub.backend.component.ResponseBytesCache;
+import com.m4hub.backend.component.SongCatalogVersion;
 import com.m4hub.backend.dto.ApiResponse;
 import com.m4hub.backend.dto.MusicToggleRequest;
 import com.m4hub.backend.model.Song;
@@ -8,6 +10,7 @@ import com.m4hub.backend.service.AuthService;
 import com.m4hub.backend.service.MusicService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,10 +22,19 @@ public class MusicController {
 
     private final MusicService musicService;
     private final AuthService authService;
+    private final ResponseBytesCache responseBytesCache;
+    private final SongCatalogVersion songCatalogVersion;
 
-    public MusicController(MusicService musicService, AuthService authService) {
+    public MusicController(MusicService musicService, AuthService authService,
+            ResponseBytesCache responseBytesCache, SongCatalogVersion songCatalogVersion) {
         this.musicService = musicService;
         this.authService = authService;
+        this.responseBytesCache = responseBytesCache;
+        this.songCatalogVersion = songCatalogVersion;
+    }
+
+    private String catalogKey(String endpoint) {
+        return ResponseBytesCache.MUSIC + ":" + songCatalogVersion.get() + ":" + endpoint;
     }
 
     @PostMapping("/sync")
@@ -45,12 +57,14 @@ public class MusicController {
     }
 
     @GetMapping("/songs")
-    public ResponseEntity<List<Song>> getAllSongs(
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<byte[]> getAllSongs(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            WebRequest request) {
         if (authHeader == null || authHeader.isEmpty() || authService.getUserFromToken(authHeader) == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(musicService.getAllSongs());
+        return responseBytesCache.respond(request, ResponseEntity.ok(), catalogKey("songs"),
+                musicService::getAllSongs);
     }
 
     @GetMapping("/search")
@@ -119,17 +133,19 @@ public class MusicController {
     }
 
     @GetMapping("/albums")
-    public ResponseEntity<List<String>> getAlbums(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<byte[]> getAlbums(@RequestHeader("Authorization") String token, WebRequest request) {
         if (authHeaderInvalid(token))
             return ResponseEntity.status(401).build();
-        return ResponseEntity.ok(musicService.getAlbums());
+        return responseBytesCache.respond(request, ResponseEntity.ok(), catalogKey("albums"),
+                musicService::getAlbums);
     }
 
     @GetMapping("/artists")
-    public ResponseEntity<List<String>> getArtists(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<byte[]> getArtists(@RequestHeader("Authorization") String token, WebRequest request) {
         if (authHeaderInvalid(token))
             return ResponseEntity.status(401).build();
-        return ResponseEntity.ok(musicService.getArtists());
+        return responseBytesCache.respond(request, ResponseEntity.ok(), catalogKey("artists"),
+                musicService::getArtists);
     }
 
     private boolean authHeaderInvalid(String token) {
@@ -1,12 +1,16 @@
 package com.m4hub.backend.controller;
 
-import com.m4hub.backend.model.NewsArticle;
+import com.m4hub.backend.component.NewsFeedVersion;
+import com.m4hub.backend.component.ResponseBytesCache;
 import com.m4hub.backend.service.NewsService;
 import com.m4hub.backend.service.AuthService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/news")
@@ -15,10 +19,15 @@ public class NewsController {
 
     private final NewsService newsService;
     private final AuthService authService;
+    private final NewsFeedVersion newsFeedVersion;
+    private final ResponseBytesCache responseBytesCache;
 
-    public NewsController(NewsService newsService, AuthService authService) {
+    public NewsController(NewsService newsService, AuthService authService, NewsFeedVersion newsFeedVersion,
+            ResponseBytesCache responseBytesCache) {
         this.newsService = newsService;
         this.authService = authService;
+        this.newsFeedVersion = newsFeedVersion;
+        this.responseBytesCache = responseBytesCache;
     }
 
     private void validateUser(String authHeader) {
@@ -28,24 +37,72 @@ public class NewsController {
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<List<NewsArticle>> getLatestNews(
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> getLatestNews(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            WebRequest request) {
+        validateUser(authHeader);
+        return conditional(request, "latest", newsService::getAllNews);
+    }
+
+    /**
+     * Paged feed, newest first, optionally for one category.
+     * Answers 304 while the client's ETag matches the current sync version.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
         validateUser(authHeader);
-        return ResponseEntity.ok(newsService.getAllNews());
+        try {
+            // Only first pages of known categories are shared widely enough to
+            // be worth caching; anything else would just churn the cache
+            int pageSize = Math.max(1, Math.min(limit, NewsService.MAX_FEED_PAGE_SIZE));
+            boolean shared = (cursor == null || cursor.isBlank())
+                    && (category == null || NewsService.CATEGORIES.contains(category));
+            String cacheKey = shared ? "feed:" + category + ":" + pageSize : null;
+            return conditional(request, cacheKey, () -> newsService.getFeedPage(category, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<NewsArticle>> getNewsByCategory(
+    public ResponseEntity<?> getNewsByCategory(
             @RequestHeader(value = "Authorization", required = false) String authHeader,
-            @PathVariable String category) {
+            @PathVariable String category,
+            WebRequest request) {
         validateUser(authHeader);
-        return ResponseEntity.ok(newsService.getNewsByCategory(category));
+        String cacheKey = NewsService.CATEGORIES.contains(category) ? "category:" + category : null;
+        return conditional(request, cacheKey, () -> newsService.getNewsByCategory(category));
     }
 
     @PostMapping("/sync")
     public ResponseEntity<?> syncNews(@RequestHeader(value = "Authorization", required = false) String authHeader) {
         validateUser(authHeader);
         newsService.syncNews();
-        return ResponseEntity.ok(java.util.Map.of("success", true, "message", "Sync initiated successfully"));
+        return ResponseEntity.ok(Map.of("success", true, "message", "Sync initiated successfully"));
+    }
+
+    // The body is only built when the client's copy is stale; on a match
+    // checkNotModified has already written the 304 and its headers. Bodies
+    // with a cache key are served as cached bytes of the same feed version.
+    private ResponseEntity<?> conditional(WebRequest request, String cacheKey, Supplier<?> body) {
+        String eTag = newsFeedVersion.getETag();
+        long lastModified = newsFeedVersion.getLastModified().toEpochMilli();
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (cacheKey == null) {
+            return builder.body(body.get());
+        }
+        return responseBytesCache.respond(request, builder,
+                ResponseBytesCache.NEWS + ":" + lastModified + ":" + cacheKey, body);
     }
 }
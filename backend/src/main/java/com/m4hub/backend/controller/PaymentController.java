@@ -1,17 +1,43 @@
 package com.m4hub.backend.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m4hub.backend.component.ResponseBytesCache;
+import com.m4hub.backend.dto.PayoutItemRequest;
+import com.m4hub.backend.dto.PayoutJobDto;
+import com.m4hub.backend.dto.TransactionFilter;
+import com.m4hub.backend.exception.TransferPendingException;
 import com.m4hub.backend.model.BankAccount;
 import com.m4hub.backend.model.Transaction;
 import com.m4hub.backend.model.User;
 import com.m4hub.backend.service.PaymentService;
 import com.m4hub.backend.service.AuthService;
+import com.m4hub.backend.service.IdempotencyService;
+import com.m4hub.backend.service.PayoutService;
+import com.m4hub.backend.service.StatementExportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import com.m4hub.backend.constants.BankConstants;
 
@@ -25,6 +51,21 @@ public class PaymentController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private PayoutService payoutService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+
     private User getUserFromToken(String authHeader) {
         User user = authService.getUserFromToken(authHeader);
         if (user == null) {
@@ -33,6 +74,22 @@ public class PaymentController {
         return user;
     }
 
+    /**
+     * Runs a money-moving request at most once per Idempotency-Key, so client
+     * retries after a timeout replay the original outcome instead of paying twice.
+     */
+    private <T> T idempotent(User user, String operation, String idempotencyKey,
+            Map<String, Object> request, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        // The PIN is not part of what the request does, and must not be retained
+        Map<String, Object> fingerprint = new TreeMap<>(request);
+        fingerprint.remove("upiPin");
+        return idempotencyService.execute(user.getId() + ":" + operation, idempotencyKey.trim(),
+                fingerprint.toString(), action);
+    }
+
     @GetMapping("/accounts")
     public ResponseEntity<?> getAccounts(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -123,20 +180,23 @@ public class PaymentController {
     }
 
     @GetMapping("/banks")
-    public ResponseEntity<?> getSupportedBanks() {
-        return ResponseEntity.ok(BankConstants.SUPPORTED_BANKS.stream()
-                .map(bank -> {
-                    Map<String, String> bankMap = new HashMap<>();
-                    bankMap.put("code", bank.getCode());
-                    bankMap.put("name", bank.getName());
-                    bankMap.put("ifscPrefix", bank.getIfscPrefix());
-                    return bankMap;
-                })
-                .collect(Collectors.toList()));
+    public ResponseEntity<byte[]> getSupportedBanks(WebRequest request) {
+        // The list is a constant, so it is mapped and serialized once per process
+        return responseBytesCache.respond(request, ResponseEntity.ok(), ResponseBytesCache.PAYMENTS + ":banks",
+                () -> BankConstants.SUPPORTED_BANKS.stream()
+                        .map(bank -> {
+                            Map<String, String> bankMap = new HashMap<>();
+                            bankMap.put("code", bank.getCode());
+                            bankMap.put("name", bank.getName());
+                            bankMap.put("ifscPrefix", bank.getIfscPrefix());
+                            return bankMap;
+                        })
+                        .collect(Collectors.toList()));
     }
 
     @PostMapping("/transfer")
     public ResponseEntity<?> transfer(@RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody Map<String, Object> request) {
         try {
             User user = getUserFromToken(authHeader);
@@ -146,9 +206,15 @@ public class PaymentController {
             String upiPin = request.get("upiPin").toString();
             String description = request.getOrDefault("description", "").toString();
 
-            Transaction tx = paymentService.transferMoney(user, sourceAccountId, receiverId, amount, upiPin,
-                    description);
+            Transaction tx = idempotent(user, "transfer", idempotencyKey, request,
+                    () -> paymentService.transferMoney(user, sourceAccountId, receiverId, amount, upiPin,
+                            description));
             return ResponseEntity.ok(tx);
+        } catch (TransferPendingException e) {
+            return ResponseEntity.accepted().body(Map.of("success", false, "pending", true,
+                    "transactionId", e.getTransactionId(), "message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("success", false, "message", "Transaction verification failed."));
@@ -157,6 +223,7 @@ public class PaymentController {
 
     @PostMapping("/transfer-external")
     public ResponseEntity<?> transferExternal(@RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody Map<String, Object> request) {
         try {
             User user = getUserFromToken(authHeader);
@@ -168,16 +235,61 @@ public class PaymentController {
             String upiPin = request.get("upiPin").toString();
             String description = request.getOrDefault("description", "").toString();
 
-            Transaction tx = paymentService.transferToAccount(user, sourceAccountId, recipientName, accountNumber, ifsc,
-                    amount, upiPin,
-                    description);
+            Transaction tx = idempotent(user, "transfer-external", idempotencyKey, request,
+                    () -> paymentService.transferToAccount(user, sourceAccountId, recipientName, accountNumber, ifsc,
+                            amount, upiPin,
+                            description));
             return ResponseEntity.ok(tx);
+        } catch (TransferPendingException e) {
+            return ResponseEntity.accepted().body(Map.of("success", false, "pending", true,
+                    "transactionId", e.getTransactionId(), "message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("success", false, "message", "Unable to list transactions."));
         }
     }
 
+    @PostMapping("/payouts")
+    public ResponseEntity<?> submitPayout(@RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody Map<String, Object> request) {
+        try {
+            User user = getUserFromToken(authHeader);
+            Long sourceAccountId = Long.valueOf(request.get("sourceAccountId").toString());
+            String upiPin = request.get("upiPin").toString();
+            List<PayoutItemRequest> items = objectMapper.convertValue(request.get("items"),
+                    new TypeReference<List<PayoutItemRequest>>() {
+                    });
+
+            PayoutJobDto job = idempotent(user, "payout", idempotencyKey, request,
+                    () -> payoutService.submit(user, sourceAccountId, upiPin, items));
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("success", false, "message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message",
+                    e.getMessage() != null ? e.getMessage() : "Unable to start payout."));
+        }
+    }
+
+    @GetMapping("/payouts/{jobId}")
+    public ResponseEntity<?> getPayout(@RequestHeader("Authorization") String authHeader,
+            @PathVariable String jobId) {
+        User user;
+        try {
+            user = getUserFromToken(authHeader);
+        } catch (Exception e) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "Unauthorized access."));
+        }
+        PayoutJobDto job = payoutService.getJob(user, jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
     @GetMapping("/history")
     public ResponseEntity<?> getHistory(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -188,6 +300,122 @@ public class PaymentController {
         }
     }
 
+    @GetMapping("/history/page")
+    public ResponseEntity<?> getHistoryPage(@RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String status,
+            WebRequest request) {
+        User user;
+        try {
+            user = getUserFromToken(authHeader);
+        } catch (Exception e) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "Unauthorized access."));
+        }
+        try {
+            TransactionFilter filter = toFilter(direction, from, to, minAmount, maxAmount, status);
+            return ResponseEntity.ok(paymentService.getTransactionHistoryPage(user, filter, cursor, limit));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid history filter."));
+        }
+    }
+
+    /**
+     * Streams the statement for a date range as CSV (default) or NDJSON.
+     * The request thread returns immediately; rows are written from the MVC
+     * async pool as they come off the database cursor. Each export holds a
+     * database connection, so when too many are running the request is
+     * refused with 503 rather than queued.
+     */
+    @GetMapping("/statement")
+    public ResponseEntity<?> getStatement(@RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String status,
+            WebRequest request) {
+        User user;
+        try {
+            user = getUserFromToken(authHeader);
+        } catch (Exception e) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "Unauthorized access."));
+        }
+
+        TransactionFilter filter;
+        StatementExportService.Format statementFormat;
+        try {
+            filter = toFilter(direction, from, to, minAmount, maxAmount, status);
+            statementFormat = StatementExportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid statement filter."));
+        }
+
+        StatementExportService.Slot slot = statementExportService.tryAcquireSlot();
+        if (slot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("success", false, "message",
+                            "Too many statements are being exported. Please try again shortly."));
+        }
+        // The body may never run (async pool full, timeout, client gone), so
+        // the slot is also released when the async request completes
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(slot,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        slot.release();
+                    }
+                });
+        StreamingResponseBody body = out -> {
+            try {
+                statementExportService.export(user, filter, statementFormat, out);
+            } finally {
+                slot.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(statementFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement." + statementFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    private TransactionFilter toFilter(String direction, String from, String to, BigDecimal minAmount,
+            BigDecimal maxAmount, String status) {
+        TransactionFilter filter = new TransactionFilter();
+        if (direction != null && !direction.isBlank()) {
+            filter.setDirection(TransactionFilter.Direction.valueOf(direction.trim().toUpperCase()));
+        }
+        filter.setFrom(parseBoundary(from));
+        filter.setTo(parseBoundary(to));
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        if (status != null && !status.isBlank()) {
+            filter.setStatus(status.trim().toUpperCase());
+        }
+        return filter;
+    }
+
+    // Accepts either an instant ("2024-01-31T18:30:00Z") or a UTC date ("2024-02-01")
+    private Instant parseBoundary(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() == 10) {
+            return LocalDate.parse(trimmed).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        return Instant.parse(trimmed);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<?> searchUserByPhone(@RequestHeader("Authorization") String authHeader,
             @RequestParam String phone) {
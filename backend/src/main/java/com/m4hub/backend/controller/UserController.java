@@ -328,17 +328,13 @@ public class UserController {
             if ("delete".equalsIgnoreCase(request.getType())) {
                 user.setIsDeleted(true);
                 user.setIsActive(false);
-                user.setSessionToken(null);
-                user.setRefreshToken(null);
-                userRepository.save(user);
+                authService.endSession(user);
                 return ResponseEntity.ok(new ApiResponse<>(true, "Account has been permanently deleted", null));
             } else if ("pause".equalsIgnoreCase(request.getType())) {
                 int days = request.getDays() != null ? request.getDays() : 30;
                 user.setIsActive(false);
                 user.setDeactivatedUntil(Instant.now().plus(days, ChronoUnit.DAYS));
-                user.setSessionToken(null);
-                user.setRefreshToken(null);
-                userRepository.save(user);
+                authService.endSession(user);
                 return ResponseEntity
                         .ok(new ApiResponse<>(true, "Account has been paused for " + days + " days", null));
             } else {
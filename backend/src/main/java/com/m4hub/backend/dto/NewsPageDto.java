@@ -0,0 +1,26 @@
+package com.m4hub.backend.dto;
+
+import com.m4hub.backend.model.NewsArticle;
+
+import java.util.List;
+
+/**
+ * A page of the news feed; pass {@code nextCursor} back to get the next one
+ */
+public class NewsPageDto {
+    private final List<NewsArticle> items;
+    private final String nextCursor; // null on the last page
+
+    public NewsPageDto(List<NewsArticle> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<NewsArticle> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
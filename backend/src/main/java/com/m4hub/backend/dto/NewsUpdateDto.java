@@ -0,0 +1,38 @@
+package com.m4hub.backend.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Pushed on /topic/news when a sync stored new articles. {@code version} is
+ * the feed's new ETag; clients holding an older one refetch the feed.
+ */
+public class NewsUpdateDto {
+    private final int newArticles;
+    private final Map<String, Integer> categories;
+    private final String version;
+    private final Instant syncedAt;
+
+    public NewsUpdateDto(int newArticles, Map<String, Integer> categories, String version, Instant syncedAt) {
+        this.newArticles = newArticles;
+        this.categories = categories;
+        this.version = version;
+        this.syncedAt = syncedAt;
+    }
+
+    public int getNewArticles() {
+        return newArticles;
+    }
+
+    public Map<String, Integer> getCategories() {
+        return categories;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Instant getSyncedAt() {
+        return syncedAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.m4hub.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Status of one transfer within a payout job
+ */
+public class PayoutItemDto {
+    private final String jobId;
+    private final int index;
+    private final String recipientName;
+    private final BigDecimal amount;
+    private final String status; // QUEUED, PROCESSING, SUCCESS, PENDING, FAILED
+    private final Long transactionId;
+    private final String message;
+
+    public PayoutItemDto(String jobId, int index, String recipientName, BigDecimal amount, String status,
+            Long transactionId, String message) {
+        this.jobId = jobId;
+        this.index = index;
+        this.recipientName = recipientName;
+        this.amount = amount;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.message = message;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getRecipientName() {
+        return recipientName;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,50 @@
+package com.m4hub.backend.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of a payout job and its items
+ */
+public class PayoutJobDto {
+    private final String jobId;
+    private final String status; // RUNNING, COMPLETED
+    private final Instant createdAt;
+    private final int succeeded;
+    private final int failed;
+    private final List<PayoutItemDto> items;
+
+    public PayoutJobDto(String jobId, String status, Instant createdAt, int succeeded, int failed,
+            List<PayoutItemDto> items) {
+        this.jobId = jobId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.items = items;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<PayoutItemDto> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,36 @@
+package com.m4hub.backend.dto;
+
+import java.time.Instant;
+
+/**
+ * A single tab usage ping queued for batched ingestion
+ */
+public class TabUsageEvent {
+    private final Long userId;
+    private final String tabName;
+    private final long durationSeconds;
+    private final Instant timestamp;
+
+    public TabUsageEvent(Long userId, String tabName, long durationSeconds, Instant timestamp) {
+        this.userId = userId;
+        this.tabName = tabName;
+        this.durationSeconds = durationSeconds;
+        this.timestamp = timestamp;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getTabName() {
+        return tabName;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+}
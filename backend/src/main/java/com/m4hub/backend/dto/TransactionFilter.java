@@ -0,0 +1,71 @@
+package com.m4hub.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Optional criteria for listing a user's transactions; null fields are ignored.
+ * {@code from} is inclusive and {@code to} exclusive.
+ */
+public class TransactionFilter {
+    public enum Direction {
+        ALL,
+        SENT,
+        RECEIVED
+    }
+
+    private Direction direction = Direction.ALL;
+    private Instant from;
+    private Instant to;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private String status;
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public void setDirection(Direction direction) {
+        this.direction = direction != null ? direction : Direction.ALL;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,24 @@
+package com.m4hub.backend.dto;
+
+import java.util.List;
+
+/**
+ * A page of payment history; pass {@code nextCursor} back to get the next one
+ */
+public class TransactionPageDto {
+    private final List<TransactionSummaryDto> items;
+    private final String nextCursor; // null on the last page
+
+    public TransactionPageDto(List<TransactionSummaryDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TransactionSummaryDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.m4hub.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One row of a user's payment history, seen from that user's side
+ */
+public class TransactionSummaryDto {
+    private final Long id;
+    private final Instant timestamp;
+    private final String direction; // SENT, RECEIVED
+    private final BigDecimal amount;
+    private final String status;
+    private final String description;
+    private final Long counterpartyId; // null for external accounts
+    private final String counterpartyName;
+
+    public TransactionSummaryDto(Long id, Instant timestamp, String direction, BigDecimal amount, String status,
+            String description, Long counterpartyId, String counterpartyName) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.direction = direction;
+        this.amount = amount;
+        this.status = status;
+        this.description = description;
+        this.counterpartyId = counterpartyId;
+        this.counterpartyName = counterpartyName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getCounterpartyId() {
+        return counterpartyId;
+    }
+
+    public String getCounterpartyName() {
+        return counterpartyName;
+    }
+}
@@ -0,0 +1,17 @@
+package com.m4hub.backend.event;
+
+/**
+ * Published when a group is created, gains a member or is deleted, so cached
+ * member lists can be dropped
+ */
+public class GroupMembershipChangedEvent {
+    private final Long groupId;
+
+    public GroupMembershipChangedEvent(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+}
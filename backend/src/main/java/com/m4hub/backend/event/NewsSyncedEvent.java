@@ -0,0 +1,45 @@
+package com.m4hub.backend.event;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Published when a news sync has stored its results
+ */
+public class NewsSyncedEvent {
+    private final int savedCount;
+    private final int purgedCount;
+    private final Map<String, Integer> newArticlesByCategory;
+    private final Instant syncedAt;
+
+    public NewsSyncedEvent(int savedCount, int purgedCount, Map<String, Integer> newArticlesByCategory,
+            Instant syncedAt) {
+        this.savedCount = savedCount;
+        this.purgedCount = purgedCount;
+        this.newArticlesByCategory = newArticlesByCategory;
+        this.syncedAt = syncedAt;
+    }
+
+    public int getSavedCount() {
+        return savedCount;
+    }
+
+    public int getPurgedCount() {
+        return purgedCount;
+    }
+
+    public Map<String, Integer> getNewArticlesByCategory() {
+        return newArticlesByCategory;
+    }
+
+    /**
+     * True when the sync added or removed any article
+     */
+    public boolean changedContent() {
+        return savedCount > 0 || purgedCount > 0;
+    }
+
+    public Instant getSyncedAt() {
+        return syncedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.m4hub.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published when songs were seeded or synced, so catalog-wide views can be rebuilt
+ */
+public class SongCatalogChangedEvent {
+    private final Instant changedAt;
+
+    public SongCatalogChangedEvent(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
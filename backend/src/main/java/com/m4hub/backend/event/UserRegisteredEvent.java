@@ -0,0 +1,29 @@
+package com.m4hub.backend.event;
+
+/**
+ * Published when a user completes registration, or when an existing user
+ * without a registration source has one recorded
+ */
+public class UserRegisteredEvent {
+    private final Long userId;
+    private final String registrationSource;
+    private final boolean newUser;
+
+    public UserRegisteredEvent(Long userId, String registrationSource, boolean newUser) {
+        this.userId = userId;
+        this.registrationSource = registrationSource;
+        this.newUser = newUser;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRegistrationSource() {
+        return registrationSource;
+    }
+
+    public boolean isNewUser() {
+        return newUser;
+    }
+}
@@ -0,0 +1,43 @@
+package com.m4hub.backend.exception;
+
+/**
+ * Failure reported by, or while talking to, the external banking gateway.
+ * Technical failures (timeouts, outages, overload) count towards the circuit
+ * breaker; business rejections from the bank (e.g. limits) do not.
+ * A technical failure after the request went out leaves its effect unknown:
+ * the bank may still have acted on it.
+ */
+public class BankingGatewayException extends RuntimeException {
+    private final boolean technical;
+    private final boolean sent;
+
+    public BankingGatewayException(String message, boolean technical) {
+        this(message, technical, true, null);
+    }
+
+    public BankingGatewayException(String message, boolean technical, Throwable cause) {
+        this(message, technical, true, cause);
+    }
+
+    /**
+     * @param sent false when the call was refused locally (bulkhead, circuit
+     *             breaker) and never reached the bank
+     */
+    public BankingGatewayException(String message, boolean technical, boolean sent, Throwable cause) {
+        super(message, cause);
+        this.technical = technical;
+        this.sent = sent;
+    }
+
+    public boolean isTechnical() {
+        return technical;
+    }
+
+    /**
+     * True when the bank is known not to have acted: it declined the request,
+     * or the request never left this service.
+     */
+    public boolean isOutcomeKnown() {
+        return !technical || !sent;
+    }
+}
@@ -0,0 +1,13 @@
+package com.m4hub.backend.exception;
+
+/**
+ * A payment was refused before anything was written for it (bad account,
+ * wrong PIN, insufficient funds, recipient failed verification), so it can
+ * safely be tried again.
+ */
+public class PaymentRejectedException extends RuntimeException {
+
+    public PaymentRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.m4hub.backend.exception;
+
+/**
+ * The bank did not give a definite answer for a transfer (e.g. it timed out),
+ * so the funds stay held and the transfer stays PENDING until it is reconciled
+ * against the bank's records. Retrying it as a new transfer could pay twice.
+ */
+public class TransferPendingException extends RuntimeException {
+    private final Long transactionId;
+
+    public TransferPendingException(Long transactionId, Throwable cause) {
+        super("The bank has not confirmed this transfer yet. Check your history before trying again.", cause);
+        this.transactionId = transactionId;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+}
@@ -17,9 +17,16 @@ public class BankAccount {
     @Column(nullable = false)
     private Boolean isPrimary = false;
 
-    @Column(nullable = false)
+    // Written on insert only; afterwards changed solely by LedgerService's
+    // atomic UPDATEs so a stale entity save can never overwrite it
+    @Column(nullable = false, updatable = false)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    // Bumped by each of those UPDATEs; tells a sync the balance moved even if
+    // it moved back to the same value
+    @Column(name = "balance_version", nullable = false, updatable = false)
+    private Long balanceVersion = 0L;
+
     @Column(nullable = false, unique = true)
     private String accountNumber;
 
@@ -65,6 +72,10 @@ public class BankAccount {
         this.balance = balance;
     }
 
+    public Long getBalanceVersion() {
+        return balanceVersion;
+    }
+
     public String getAccountNumber() {
         return accountNumber;
     }
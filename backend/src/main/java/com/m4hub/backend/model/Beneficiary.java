@@ -1,6 +1,7 @@
 package com.m4hub.backend.model;
 
 import jakarta.persistence.*;
+import java.time.Instant;
 
 @Entity
 @Table(name = "beneficiaries")
@@ -27,6 +28,10 @@ public class Beneficiary {
     @Column(nullable = false)
     private String type; // INTERNAL, EXTERNAL
 
+    // Last time the bank confirmed these account details; null if never
+    @Column(name = "verified_at")
+    private Instant verifiedAt;
+
     public Beneficiary() {
     }
 
@@ -85,4 +90,12 @@ public class Beneficiary {
     public void setType(String type) {
         this.type = type;
     }
+
+    public Instant getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    public void setVerifiedAt(Instant verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
 }
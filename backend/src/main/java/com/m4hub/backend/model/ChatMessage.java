@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_messages_sender_receiver_created", columnList = "sender_id, receiver_id, created_at"),
+        @Index(name = "idx_chat_messages_receiver_read", columnList = "receiver_id, is_read")
+})
 public class ChatMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
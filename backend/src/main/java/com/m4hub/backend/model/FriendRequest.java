@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "friend_requests")
+@Table(name = "friend_requests", indexes = {
+        @Index(name = "idx_friend_requests_receiver_status", columnList = "receiver_id, status"),
+        @Index(name = "idx_friend_requests_sender_status", columnList = "sender_id, status")
+})
 public class FriendRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
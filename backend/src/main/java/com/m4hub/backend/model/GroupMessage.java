@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "group_messages")
+@Table(name = "group_messages", indexes = {
+        @Index(name = "idx_group_messages_group_created", columnList = "group_id, created_at")
+})
 public class GroupMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
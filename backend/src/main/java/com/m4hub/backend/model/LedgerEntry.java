@@ -0,0 +1,71 @@
+package com.m4hub.backend.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Append-only record of a single balance movement on a {@link BankAccount}.
+ * The account's balance column is the running total of its entries and is
+ * only changed through {@link com.m4hub.backend.service.LedgerService}.
+ */
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_account_created", columnList = "account_id, created_at"),
+        @Index(name = "idx_ledger_entries_transaction", columnList = "transaction_id")
+})
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(name = "transaction_id", updatable = false)
+    private Long transactionId;
+
+    // Signed: negative for debits, positive for credits
+    @Column(nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "entry_type", nullable = false, updatable = false)
+    private String entryType; // OPENING, DEBIT, CREDIT, REVERSAL, SYNC
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public LedgerEntry() {
+    }
+
+    public LedgerEntry(Long accountId, Long transactionId, BigDecimal amount, String entryType) {
+        this.accountId = accountId;
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.entryType = entryType;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getEntryType() {
+        return entryType;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
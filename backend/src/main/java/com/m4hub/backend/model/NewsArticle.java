@@ -8,7 +8,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "news_articles")
+@Table(name = "news_articles", indexes = {
+        @Index(name = "idx_news_articles_published_at_id", columnList = "published_at, id"),
+        @Index(name = "idx_news_articles_category_published_at_id", columnList = "category, published_at, id"),
+        @Index(name = "idx_news_articles_last_seen_at", columnList = "last_seen_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,6 +44,9 @@ public class NewsArticle {
 
     private LocalDateTime publishedAt;
 
+    // Refreshed by every sync that still finds the article in the feed
+    private LocalDateTime lastSeenAt;
+
     private String category;
 
     @Column(unique = true, columnDefinition = "TEXT")
@@ -54,6 +61,7 @@ public class NewsArticle {
         this.url = url;
         this.urlToImage = urlToImage;
         this.publishedAt = publishedAt;
+        this.lastSeenAt = publishedAt;
         this.category = category;
         this.externalId = externalId;
     }
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "tab_usage")
+@Table(name = "tab_usage", indexes = {
+        @Index(name = "idx_tab_usage_user_timestamp", columnList = "user_id, timestamp")
+})
 public class TabUsage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
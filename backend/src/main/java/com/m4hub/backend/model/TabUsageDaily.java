@@ -0,0 +1,85 @@
+package com.m4hub.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-day, per-tab rollup of {@link TabUsage} rows.
+ * Maintained incrementally on every tracked usage and reconciled by
+ * {@link com.m4hub.backend.service.TabUsageRollupService}.
+ */
+@Entity
+@Table(name = "tab_usage_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tab_usage_daily_user_date_tab", columnNames = { "user_id", "usage_date", "tab_name" })
+})
+public class TabUsageDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(name = "tab_name", nullable = false)
+    private String tabName;
+
+    @Column(name = "total_seconds", nullable = false)
+    private long totalSeconds;
+
+    @Column(name = "session_count", nullable = false)
+    private int sessionCount;
+
+    public TabUsageDaily() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+
+    public void setUsageDate(LocalDate usageDate) {
+        this.usageDate = usageDate;
+    }
+
+    public String getTabName() {
+        return tabName;
+    }
+
+    public void setTabName(String tabName) {
+        this.tabName = tabName;
+    }
+
+    public long getTotalSeconds() {
+        return totalSeconds;
+    }
+
+    public void setTotalSeconds(long totalSeconds) {
+        this.totalSeconds = totalSeconds;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(int sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+}
@@ -5,7 +5,11 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_sender_timestamp_id", columnList = "sender_id, timestamp, id"),
+        @Index(name = "idx_transactions_receiver_timestamp_id", columnList = "receiver_id, timestamp, id"),
+        @Index(name = "idx_transactions_status_timestamp", columnList = "status, timestamp")
+})
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,8 +20,8 @@ public class Transaction {
     private User sender;
 
     @ManyToOne
-    @JoinColumn(name = "receiver_id", nullable = false)
-    private User receiver;
+    @JoinColumn(name = "receiver_id")
+    private User receiver; // null for transfers to external accounts
 
     @Column(nullable = false)
     private BigDecimal amount;
@@ -30,6 +34,17 @@ public class Transaction {
     @Column(nullable = false)
     private String status; // PENDING, SUCCESS, FAILED
 
+    // Accounts whose balances this transfer moves, so a PENDING reservation
+    // can be settled or released
+    @Column(name = "source_account_id")
+    private Long sourceAccountId;
+
+    @Column(name = "destination_account_id")
+    private Long destinationAccountId; // null for transfers to external accounts
+
+    @Column(name = "external_ref")
+    private String externalRef;
+
     public Transaction() {
     }
 
@@ -88,4 +103,28 @@ public class Transaction {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public Long getSourceAccountId() {
+        return sourceAccountId;
+    }
+
+    public void setSourceAccountId(Long sourceAccountId) {
+        this.sourceAccountId = sourceAccountId;
+    }
+
+    public Long getDestinationAccountId() {
+        return destinationAccountId;
+    }
+
+    public void setDestinationAccountId(Long destinationAccountId) {
+        this.destinationAccountId = destinationAccountId;
+    }
+
+    public String getExternalRef() {
+        return externalRef;
+    }
+
+    public void setExternalRef(String externalRef) {
+        this.externalRef = externalRef;
+    }
 }
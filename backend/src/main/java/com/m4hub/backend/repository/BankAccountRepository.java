@@ -3,6 +3,11 @@ package com.m4hub.backend.repository;
 import com.m4hub.backend.model.BankAccount;
 import com.m4hub.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.util.Optional;
 
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
@@ -11,4 +16,32 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
     Optional<BankAccount> findByUserAndIsPrimary(User user, Boolean isPrimary);
 
     Optional<BankAccount> findByAccountNumber(String accountNumber);
+
+    // Scalar read so the value never comes from a stale persistence context
+    @Query(value = "SELECT balance FROM bank_accounts WHERE id = :id FOR UPDATE", nativeQuery = true)
+    BigDecimal lockBalance(@Param("id") Long id);
+
+    @Query(value = "SELECT balance_version FROM bank_accounts WHERE id = :id", nativeQuery = true)
+    Long findBalanceVersion(@Param("id") Long id);
+
+    // Atomic conditional debit; returns 0 when the account is missing or short of funds
+    @Modifying
+    @Query(value = "UPDATE bank_accounts SET balance = balance - :amount, balance_version = balance_version + 1 "
+            + "WHERE id = :id AND balance >= :amount", nativeQuery = true)
+    int debit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE bank_accounts SET balance = balance + :amount, balance_version = balance_version + 1 "
+            + "WHERE id = :id", nativeQuery = true)
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE bank_accounts SET balance = :balance, balance_version = balance_version + 1 "
+            + "WHERE id = :id", nativeQuery = true)
+    int setBalance(@Param("id") Long id, @Param("balance") BigDecimal balance);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE bank_accounts SET upi_pin = :upiPin WHERE id = :id", nativeQuery = true)
+    int updateUpiPin(@Param("id") Long id, @Param("upiPin") String upiPin);
 }
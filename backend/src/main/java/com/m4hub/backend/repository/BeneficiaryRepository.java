@@ -3,8 +3,24 @@ package com.m4hub.backend.repository;
 import com.m4hub.backend.model.Beneficiary;
 import com.m4hub.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 import java.util.List;
 
 public interface BeneficiaryRepository extends JpaRepository<Beneficiary, Long> {
     List<Beneficiary> findByUser(User user);
+
+    List<Beneficiary> findByUserAndAccountNumberAndIfscCode(User user, String accountNumber, String ifscCode);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Beneficiary b SET b.verifiedAt = :verifiedAt WHERE b.user = :user " +
+            "AND b.accountNumber = :accountNumber AND b.ifscCode = :ifscCode " +
+            "AND LOWER(TRIM(b.name)) = LOWER(TRIM(:name))")
+    int markVerified(@Param("user") User user, @Param("accountNumber") String accountNumber,
+            @Param("ifscCode") String ifscCode, @Param("name") String name,
+            @Param("verifiedAt") Instant verifiedAt);
 }
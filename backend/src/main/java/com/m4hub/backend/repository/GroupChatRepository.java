@@ -13,4 +13,7 @@ import java.util.List;
 public interface GroupChatRepository extends JpaRepository<GroupChat, Long> {
     @Query("SELECT g FROM GroupChat g JOIN g.members m WHERE m = :user ORDER BY g.lastMessageAt DESC")
     List<GroupChat> findByMember(@Param("user") User user);
+
+    @Query("SELECT m.id FROM GroupChat g JOIN g.members m WHERE g.id = :groupId")
+    List<Long> findMemberIds(@Param("groupId") Long groupId);
 }
@@ -0,0 +1,9 @@
+package com.m4hub.backend.repository;
+
+import com.m4hub.backend.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+}
@@ -1,9 +1,13 @@
 package com.m4hub.backend.repository;
 
 import com.m4hub.backend.model.NewsArticle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
@@ -14,4 +18,22 @@ public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>
     List<NewsArticle> findByCategoryOrderByPublishedAtDesc(String category);
 
     List<NewsArticle> findAllByOrderByPublishedAtDesc();
+
+    // Keyset pages of the feed, newest first; callers bound the size via Pageable
+
+    @Query("SELECT a FROM NewsArticle a ORDER BY a.publishedAt DESC, a.id DESC")
+    List<NewsArticle> findFeedPage(Pageable pageable);
+
+    @Query("SELECT a FROM NewsArticle a WHERE a.publishedAt < :publishedAt "
+            + "OR (a.publishedAt = :publishedAt AND a.id < :id) ORDER BY a.publishedAt DESC, a.id DESC")
+    List<NewsArticle> findFeedPageAfter(@Param("publishedAt") LocalDateTime publishedAt, @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("SELECT a FROM NewsArticle a WHERE a.category = :category ORDER BY a.publishedAt DESC, a.id DESC")
+    List<NewsArticle> findFeedPageByCategory(@Param("category") String category, Pageable pageable);
+
+    @Query("SELECT a FROM NewsArticle a WHERE a.category = :category AND (a.publishedAt < :publishedAt "
+            + "OR (a.publishedAt = :publishedAt AND a.id < :id)) ORDER BY a.publishedAt DESC, a.id DESC")
+    List<NewsArticle> findFeedPageByCategoryAfter(@Param("category") String category,
+            @Param("publishedAt") LocalDateTime publishedAt, @Param("id") Long id, Pageable pageable);
 }
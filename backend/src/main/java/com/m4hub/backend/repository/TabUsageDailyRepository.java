@@ -0,0 +1,50 @@
+package com.m4hub.backend.repository;
+
+import com.m4hub.backend.model.TabUsageDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TabUsageDailyRepository extends JpaRepository<TabUsageDaily, Long> {
+
+        List<TabUsageDaily> findByUserIdAndUsageDateGreaterThanEqual(Long userId, LocalDate since);
+
+        // Add one session of the given length to the (user, day, tab) bucket
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO tab_usage_daily (user_id, usage_date, tab_name, total_seconds, session_count) " +
+                        "VALUES (:userId, :usageDate, :tabName, :seconds, 1) " +
+                        "ON CONFLICT (user_id, usage_date, tab_name) DO UPDATE SET " +
+                        "total_seconds = tab_usage_daily.total_seconds + EXCLUDED.total_seconds, " +
+                        "session_count = tab_usage_daily.session_count + 1", nativeQuery = true)
+        void addUsage(@Param("userId") Long userId, @Param("usageDate") LocalDate usageDate,
+                        @Param("tabName") String tabName, @Param("seconds") long seconds);
+
+        // Recompute buckets from the raw tab_usage rows, overwriting whatever the
+        // incremental path wrote (used for backfill and reconciliation)
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO tab_usage_daily (user_id, usage_date, tab_name, total_seconds, session_count) " +
+                        "SELECT t.user_id, CAST(timezone(:zone, t.timestamp) AS date), LOWER(t.tab_name), " +
+                        "SUM(t.duration_seconds), COUNT(*) " +
+                        "FROM tab_usage t WHERE t.timestamp >= :since AND t.timestamp < :until " +
+                        "GROUP BY 1, 2, 3 " +
+                        "ON CONFLICT (user_id, usage_date, tab_name) DO UPDATE SET " +
+                        "total_seconds = EXCLUDED.total_seconds, " +
+                        "session_count = EXCLUDED.session_count", nativeQuery = true)
+        int rebuildBetween(@Param("since") Instant since, @Param("until") Instant until,
+                        @Param("zone") String zone);
+
+        @Modifying
+        @Transactional
+        @Query("DELETE FROM TabUsageDaily t WHERE t.usageDate < :cutoff")
+        int deleteByUsageDateBefore(@Param("cutoff") LocalDate cutoff);
+}
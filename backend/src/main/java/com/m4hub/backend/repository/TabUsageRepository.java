@@ -3,9 +3,11 @@ package com.m4hub.backend.repository;
 import com.m4hub.backend.model.TabUsage;
 import com.m4hub.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -22,4 +24,9 @@ public interface TabUsageRepository extends JpaRepository<TabUsage, Long> {
                         "GROUP BY LOWER(t.tabName)")
         List<Map<String, Object>> aggregateUsageByUserAndTimestampAfter(@Param("user") User user,
                         @Param("since") Instant since);
+
+        @Modifying
+        @Transactional
+        @Query("DELETE FROM TabUsage t WHERE t.timestamp < :cutoff")
+        int deleteByTimestampBefore(@Param("cutoff") Instant cutoff);
 }
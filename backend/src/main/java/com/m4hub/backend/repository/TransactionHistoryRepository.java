@@ -0,0 +1,146 @@
+package com.m4hub.backend.repository;
+
+import com.m4hub.backend.dto.TransactionFilter;
+import com.m4hub.backend.dto.TransactionSummaryDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keyset-paginated, filterable reads of a user's payment history.
+ * The sent and received sides are separate UNION ALL branches so each one
+ * walks its own (party, timestamp, id) index instead of OR-ing two columns.
+ */
+@Repository
+public class TransactionHistoryRepository {
+
+    // counterparty_id is null for external transfers
+    private static final RowMapper<TransactionSummaryDto> SUMMARY_MAPPER = (rs, rowNum) -> new TransactionSummaryDto(
+            rs.getLong("id"),
+            rs.getTimestamp("timestamp").toInstant(),
+            rs.getString("direction"),
+            rs.getBigDecimal("amount"),
+            rs.getString("status"),
+            rs.getString("description"),
+            rs.getObject("counterparty_id", Long.class),
+            rs.getString("counterparty_name"));
+
+    // Rows pulled per round trip when streaming a statement
+    private static final int STATEMENT_FETCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public TransactionHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(STATEMENT_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    /**
+     * Newest first, strictly after the (timestamp, id) cursor when one is given.
+     */
+    public List<TransactionSummaryDto> findPage(Long userId, TransactionFilter filter, Instant cursorTimestamp,
+            Long cursorId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId).addValue("limit", limit);
+        String cursor = "";
+        if (cursorTimestamp != null && cursorId != null) {
+            cursor = " AND (t.timestamp, t.id) < (:cursorTs, :cursorId)";
+            params.addValue("cursorTs", Timestamp.from(cursorTimestamp)).addValue("cursorId", cursorId);
+        }
+        String where = filterClause(filter, params) + cursor;
+        String order = " ORDER BY timestamp DESC, id DESC";
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM (");
+        boolean first = true;
+        if (filter.getDirection() != TransactionFilter.Direction.RECEIVED) {
+            sql.append("(").append(sentBranch(where)).append(" ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)");
+            first = false;
+        }
+        if (filter.getDirection() != TransactionFilter.Direction.SENT) {
+            if (!first) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(").append(receivedBranch(where))
+                    .append(" ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)");
+        }
+        sql.append(") h").append(order).append(" LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, SUMMARY_MAPPER);
+    }
+
+    /**
+     * Every matching row, oldest first, handed to {@code sink} one at a time.
+     * Must run inside a transaction: Postgres only honours the fetch size (and
+     * so only streams from a server-side cursor) with autocommit off.
+     */
+    public void streamAll(Long userId, TransactionFilter filter, Consumer<TransactionSummaryDto> sink) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        String where = filterClause(filter, params);
+
+        StringBuilder sql = new StringBuilder();
+        if (filter.getDirection() != TransactionFilter.Direction.RECEIVED) {
+            sql.append(sentBranch(where));
+        }
+        if (filter.getDirection() != TransactionFilter.Direction.SENT) {
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append(receivedBranch(where));
+        }
+        sql.append(" ORDER BY timestamp ASC, id ASC");
+
+        streamingJdbcTemplate.query(sql.toString(), params,
+                (RowCallbackHandler) rs -> sink.accept(SUMMARY_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    static String sentBranch(String where) {
+        return "SELECT t.id, t.timestamp, 'SENT' AS direction, t.amount, t.status, t.description, "
+                + "c.id AS counterparty_id, COALESCE(c.name, c.username) AS counterparty_name "
+                + "FROM transactions t LEFT JOIN users c ON c.id = t.receiver_id "
+                + "WHERE t.sender_id = :userId" + where;
+    }
+
+    // A transfer between two of the user's own accounts is listed once, as SENT
+    static String receivedBranch(String where) {
+        return "SELECT t.id, t.timestamp, 'RECEIVED' AS direction, t.amount, t.status, t.description, "
+                + "c.id AS counterparty_id, COALESCE(c.name, c.username) AS counterparty_name "
+                + "FROM transactions t LEFT JOIN users c ON c.id = t.sender_id "
+                + "WHERE t.receiver_id = :userId AND t.sender_id <> :userId" + where;
+    }
+
+    static String filterClause(TransactionFilter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder();
+        if (filter.getFrom() != null) {
+            where.append(" AND t.timestamp >= :from");
+            params.addValue("from", Timestamp.from(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            where.append(" AND t.timestamp < :to");
+            params.addValue("to", Timestamp.from(filter.getTo()));
+        }
+        if (filter.getMinAmount() != null) {
+            where.append(" AND t.amount >= :minAmount");
+            params.addValue("minAmount", filter.getMinAmount());
+        }
+        if (filter.getMaxAmount() != null) {
+            where.append(" AND t.amount <= :maxAmount");
+            params.addValue("maxAmount", filter.getMaxAmount());
+        }
+        if (filter.getStatus() != null) {
+            where.append(" AND t.status = :status");
+            params.addValue("status", filter.getStatus());
+        }
+        return where.toString();
+    }
+}
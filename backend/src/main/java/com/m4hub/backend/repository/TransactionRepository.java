@@ -2,8 +2,14 @@ package com.m4hub.backend.repository;
 
 import com.m4hub.backend.model.Transaction;
 import com.m4hub.backend.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findBySenderOrderByTimestampDesc(User sender);
@@ -11,4 +17,15 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByReceiverOrderByTimestampDesc(User receiver);
 
     List<Transaction> findBySenderOrReceiverOrderByTimestampDesc(User sender, User receiver);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    List<Transaction> findTop100ByStatusAndTimestampBeforeOrderByTimestampAsc(String status, Instant before);
+
+    // Transfers of this status moving money out of or into the account
+    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END FROM Transaction t WHERE t.status = :status "
+            + "AND (t.sourceAccountId = :accountId OR t.destinationAccountId = :accountId)")
+    boolean existsByStatusInvolvingAccount(@Param("status") String status, @Param("accountId") Long accountId);
 }
@@ -28,6 +28,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))")
     java.util.List<User> searchUsers(String query);
 
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    java.util.Set<Long> findExistingIds(java.util.Collection<Long> ids);
+
     @org.springframework.data.jpa.repository.Modifying
     @org.springframework.transaction.annotation.Transactional
     @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.isOnline = false")
@@ -37,4 +40,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @org.springframework.transaction.annotation.Transactional
     @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.isOnline = :status WHERE u.id = :userId")
     void updateUserStatus(Long userId, Boolean status);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.registrationSource, COUNT(u) FROM User u GROUP BY u.registrationSource")
+    java.util.List<Object[]> countByRegistrationSource();
+
+    @org.springframework.data.jpa.repository.Query(value = "SELECT CAST(created_at AS date), " +
+            "COALESCE(registration_source, 'unknown'), COUNT(*) FROM users " +
+            "WHERE created_at >= :since GROUP BY 1, 2 ORDER BY 1", nativeQuery = true)
+    java.util.List<Object[]> countRegistrationsByDayAndSource(
+            @org.springframework.data.repository.query.Param("since") java.time.Instant since);
 }
@@ -1,6 +1,9 @@
 package com.m4hub.backend.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.m4hub.backend.dto.*;
+import com.m4hub.backend.event.UserRegisteredEvent;
 import com.m4hub.backend.model.EmailOtpVerification;
 import com.m4hub.backend.model.User;
 import com.m4hub.backend.repository.EmailOtpVerificationRepository;
@@ -9,6 +12,7 @@ import com.m4hub.backend.util.JwtTokenUtil;
 import com.m4hub.backend.util.PasswordValidator;
 import com.m4hub.backend.util.RateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +23,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AuthService {
@@ -32,6 +37,14 @@ public class AuthService {
     private final JwtTokenUtil jwtTokenUtil;
     private final RateLimiter rateLimiter;
     private final PasswordEncoder passwordEncoder; // BCrypt
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Session expiry per user for getUserIdFromToken; EPOCH when the user is
+    // gone. Expiry only moves forward, so a stale entry can only under-trust.
+    private final Cache<Long, Instant> sessionExpiryCache = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
 
     @Autowired
     public AuthService(
@@ -41,7 +54,8 @@ public class AuthService {
             PasswordValidator passwordValidator,
             JwtTokenUtil jwtTokenUtil,
             RateLimiter rateLimiter,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.emailOtpRepository = emailOtpRepository;
         this.emailService = emailService;
@@ -49,6 +63,7 @@ public class AuthService {
         this.jwtTokenUtil = jwtTokenUtil;
         this.rateLimiter = rateLimiter;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     // ============================================================================
@@ -336,14 +351,17 @@ public class AuthService {
             user.setPasswordHash(emailOtp.getPasswordHash());
             user.setRegistrationSource(request.getRegistrationSource());
             user = userRepository.save(user);
+            eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getRegistrationSource(), true));
         } else {
             logger.info("User already exists for email: {}. Updating verification status.", normalizedEmail);
             user.setIsVerified(true);
             if (user.getPasswordHash() == null) {
                 user.setPasswordHash(emailOtp.getPasswordHash());
             }
-            if (user.getRegistrationSource() == null) {
+            if (user.getRegistrationSource() == null && request.getRegistrationSource() != null) {
                 user.setRegistrationSource(request.getRegistrationSource());
+                eventPublisher.publishEvent(
+                        new UserRegisteredEvent(user.getId(), user.getRegistrationSource(), false));
             }
         }
 
@@ -452,6 +470,24 @@ public class AuthService {
         return new AuthResponse(true, "Token refreshed", newAccessToken, refreshToken, userDto);
     }
 
+    // ============================================================================
+    // LOGOUT
+    // ============================================================================
+
+    /**
+     * Revoke the user's session and refresh tokens. The cached session expiry
+     * is dropped after the save, so access tokens stop working straight away
+     * instead of when the cache entry runs out.
+     */
+    public void endSession(User user) {
+        user.setSessionToken(null);
+        user.setSessionTokenExpiry(null);
+        user.setRefreshToken(null);
+        user.setRefreshTokenExpiry(null);
+        userRepository.save(user);
+        sessionExpiryCache.invalidate(user.getId());
+    }
+
     // ============================================================================
     // TOKEN UTILITIES
     // ============================================================================
@@ -488,6 +524,45 @@ public class AuthService {
         return userRepository.findBySessionToken(resolvedToken).orElse(null);
     }
 
+    /**
+     * Resolve only the user id for a token, with the same checks as
+     * {@link #getUserFromToken}: refresh tokens are refused and the user must
+     * exist with an unexpired session. The session check is served from a
+     * short-lived cache, so a valid JWT usually costs no database round trip;
+     * anything else falls back to the full lookup.
+     */
+    public Long getUserIdFromToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String resolvedToken = token;
+        if (token.toLowerCase().startsWith("bearer ")) {
+            resolvedToken = token.substring(7).trim();
+        }
+
+        Long userId = jwtTokenUtil.getUserIdFromToken(resolvedToken);
+        if (userId != null && !jwtTokenUtil.isRefreshToken(resolvedToken) && hasActiveSession(userId)) {
+            return userId;
+        }
+
+        User user = getUserFromToken(token);
+        return user != null ? user.getId() : null;
+    }
+
+    private boolean hasActiveSession(Long userId) {
+        Instant now = Instant.now();
+        Instant expiry = sessionExpiryCache.getIfPresent(userId);
+        if (expiry == null || !expiry.isAfter(now)) {
+            // Missing, or expired and possibly extended by a new login since
+            expiry = userRepository.findById(userId)
+                    .map(User::getSessionTokenExpiry)
+                    .orElse(Instant.EPOCH);
+            sessionExpiryCache.put(userId, expiry);
+        }
+        return expiry.isAfter(now);
+    }
+
     public String getEmailFromToken(String token) {
         return jwtTokenUtil.getEmailFromToken(token);
     }
@@ -1,5 +1,6 @@
 package com.m4hub.backend.service;
 
+import com.m4hub.backend.event.GroupMembershipChangedEvent;
 import com.m4hub.backend.model.ChatMessage;
 import com.m4hub.backend.model.FriendRequest;
 import com.m4hub.backend.model.User;
@@ -10,6 +11,7 @@ import com.m4hub.backend.repository.MessageReactionRepository;
 import com.m4hub.backend.repository.GroupChatRepository;
 import com.m4hub.backend.repository.GroupMessageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,6 +47,9 @@ public class ChatService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // --- Friend Requests ---
 
     public FriendRequest sendFriendRequest(Long senderId, String receiverUsername) {
@@ -76,7 +81,7 @@ public class ChatService {
 
         // Notify the receiver via WebSocket
         try {
-            messagingTemplate.convertAndSend("/queue/requests/" + receiver.getId(),
+            messagingTemplate.convertAndSendToUser(String.valueOf(receiver.getId()), "/queue/requests",
                     Map.of("type", "FRIEND_REQUEST", "action", "RELOAD"));
             logger.debug("Sent real-time notification to user ID: {}", receiver.getId());
         } catch (Exception e) {
@@ -146,7 +151,9 @@ public class ChatService {
 
     public ChatMessage sendMessage(Long senderId, Long receiverId, String content, String messageType,
             String mediaUrl) {
-        User sender = userRepository.findById(senderId).orElseThrow(() -> new RuntimeException("Sender not found"));
+        // The sender is already authenticated (token or STOMP session), so a
+        // reference is enough to set the foreign key without loading the row
+        User sender = userRepository.getReferenceById(senderId);
         User receiver = userRepository.findById(receiverId)
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
@@ -169,9 +176,9 @@ public class ChatService {
                     "isDelivered", false);
 
             // Send to receiver
-            messagingTemplate.convertAndSend("/queue/messages/" + receiverId, payload);
+            messagingTemplate.convertAndSendToUser(String.valueOf(receiverId), "/queue/messages", payload);
             // Send feedback to sender
-            messagingTemplate.convertAndSend("/queue/messages/" + senderId, payload);
+            messagingTemplate.convertAndSendToUser(String.valueOf(senderId), "/queue/messages", payload);
 
             logger.info("Broadcasted message from {} to {}", senderId, receiverId);
         } catch (Exception e) {
@@ -218,22 +225,30 @@ public class ChatService {
         return userRepository.searchUsers(query);
     }
 
-    // Mark message as delivered
+    // Mark message as delivered; only its receiver can
     @Transactional
-    public void markAsDelivered(Long messageId) {
-        ChatMessage message = chatMessageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
+    public void markAsDelivered(Long messageId, Long receiverId) {
+        ChatMessage message = receivedMessage(messageId, receiverId);
         message.setDeliveredAt(java.time.Instant.now());
         chatMessageRepository.save(message);
     }
 
-    // Mark message as read
+    // Mark message as read; only its receiver can. Returns the sender's id.
     @Transactional
-    public void markMessageAsRead(Long messageId) {
-        ChatMessage message = chatMessageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
+    public Long markMessageAsRead(Long messageId, Long receiverId) {
+        ChatMessage message = receivedMessage(messageId, receiverId);
         message.setReadAt(java.time.Instant.now());
         chatMessageRepository.save(message);
+        return message.getSender().getId();
+    }
+
+    private ChatMessage receivedMessage(Long messageId, Long receiverId) {
+        ChatMessage message = chatMessageRepository.findById(messageId)
+                .orElseThrow(() -> new RuntimeException("Message not found"));
+        if (!message.getReceiver().getId().equals(receiverId)) {
+            throw new RuntimeException("Unauthorized");
+        }
+        return message;
     }
 
     // Message Reactions
@@ -296,6 +311,7 @@ public class ChatService {
         }
 
         com.m4hub.backend.model.GroupChat savedGroup = groupChatRepository.save(group);
+        eventPublisher.publishEvent(new GroupMembershipChangedEvent(savedGroup.getId()));
 
         // Notify all members via WebSocket
         try {
@@ -304,7 +320,7 @@ public class ChatService {
                     "groupId", savedGroup.getId(),
                     "name", savedGroup.getName());
             for (User member : savedGroup.getMembers()) {
-                messagingTemplate.convertAndSend("/queue/requests/" + member.getId(), payload);
+                messagingTemplate.convertAndSendToUser(String.valueOf(member.getId()), "/queue/requests", payload);
             }
         } catch (Exception e) {
             logger.error("Failed to notify members of new group", e);
@@ -329,6 +345,7 @@ public class ChatService {
 
         group.getMembers().add(user);
         groupChatRepository.save(group);
+        eventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
     }
 
     @Transactional
@@ -342,13 +359,11 @@ public class ChatService {
     public void sendGroupMessage(Long groupId, Long senderId, String content, String messageType) {
         com.m4hub.backend.model.GroupChat group = groupChatRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Verify sender is a member
-        if (!group.getMembers().contains(sender)) {
-            throw new RuntimeException("Unauthorized");
-        }
+        // Verify sender is a member; the members are loaded anyway, so no separate lookup
+        User sender = group.getMembers().stream()
+                .filter(member -> member.getId().equals(senderId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unauthorized"));
 
         com.m4hub.backend.model.GroupMessage message = new com.m4hub.backend.model.GroupMessage(group, sender, content);
         message.setMessageType(messageType);
@@ -372,7 +387,7 @@ public class ChatService {
 
             // Send to ALL members' private queues
             for (User member : group.getMembers()) {
-                messagingTemplate.convertAndSend("/queue/messages/" + member.getId(), payload);
+                messagingTemplate.convertAndSendToUser(String.valueOf(member.getId()), "/queue/messages", payload);
             }
             logger.info("Broadcasted group message to {} members of group {}", group.getMembers().size(), groupId);
         } catch (Exception e) {
@@ -411,5 +426,6 @@ public class ChatService {
 
         // Delete the group
         groupChatRepository.delete(group);
+        eventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
     }
 }
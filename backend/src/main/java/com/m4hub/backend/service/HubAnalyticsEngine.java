@@ -0,0 +1,190 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.model.TabUsageDaily;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass aggregation over a user's daily tab usage rollups.
+ * One walk over the rows fills primitive arrays indexed by day offset
+ * (0 = today) and tab ordinal, from which the activity trend, engagement
+ * metrics, active-day count and per-tab sessions are all read.
+ */
+public final class HubAnalyticsEngine {
+
+    // Fixed ordinals for the tabs the clients actually send; anything else is
+    // assigned an ordinal on first sight
+    private static final String[] KNOWN_TABS = { "dashboard", "music", "messages", "money", "news", "profile",
+            "explore" };
+
+    private final LocalDate today;
+    private final int daysInPeriod;
+    private final int windowDays;
+
+    private final Map<String, Integer> tabOrdinals = new HashMap<>();
+    private String[] tabNames;
+
+    // Indexed by day offset
+    private final long[] secondsByDay;
+    private final int[] sessionsByDay;
+
+    // Indexed by month (0 = January), covering the last 365 days
+    private final long[] secondsByMonth = new long[12];
+
+    // Indexed by tab ordinal
+    private long[] currentSecondsByTab;
+    private int[] currentSessionsByTab;
+    private boolean[] usedInCurrent;
+    private boolean[] usedInPrevious;
+
+    private long currentSeconds;
+    private long previousSeconds;
+
+    private HubAnalyticsEngine(LocalDate today, int daysInPeriod, int windowDays) {
+        this.today = today;
+        this.daysInPeriod = daysInPeriod;
+        this.windowDays = windowDays;
+        this.secondsByDay = new long[windowDays];
+        this.sessionsByDay = new int[windowDays];
+
+        int capacity = KNOWN_TABS.length + 4;
+        this.tabNames = new String[capacity];
+        this.currentSecondsByTab = new long[capacity];
+        this.currentSessionsByTab = new int[capacity];
+        this.usedInCurrent = new boolean[capacity];
+        this.usedInPrevious = new boolean[capacity];
+        for (String tab : KNOWN_TABS) {
+            ordinalOf(tab);
+        }
+    }
+
+    /**
+     * Number of days (today inclusive) that must be loaded to compute a period
+     * of {@code daysInPeriod} days, its preceding period and a trend of
+     * {@code trendDays} days
+     */
+    public static int windowDays(int daysInPeriod, int trendDays) {
+        return Math.max(2 * daysInPeriod, trendDays);
+    }
+
+    public static HubAnalyticsEngine compute(List<TabUsageDaily> rollups, LocalDate today, int daysInPeriod,
+            int windowDays) {
+        HubAnalyticsEngine engine = new HubAnalyticsEngine(today, daysInPeriod, windowDays);
+        for (int i = 0, n = rollups.size(); i < n; i++) {
+            engine.accept(rollups.get(i));
+        }
+        return engine;
+    }
+
+    private void accept(TabUsageDaily rollup) {
+        LocalDate date = rollup.getUsageDate();
+        int offset = (int) ChronoUnit.DAYS.between(date, today);
+        if (offset < 0 || offset >= windowDays) {
+            return;
+        }
+
+        long seconds = rollup.getTotalSeconds();
+        int sessions = rollup.getSessionCount();
+        int tab = ordinalOf(rollup.getTabName() != null ? rollup.getTabName() : "unknown");
+
+        secondsByDay[offset] += seconds;
+        sessionsByDay[offset] += sessions;
+        if (offset < 365) {
+            secondsByMonth[date.getMonthValue() - 1] += seconds;
+        }
+
+        if (offset < daysInPeriod) {
+            currentSeconds += seconds;
+            currentSecondsByTab[tab] += seconds;
+            currentSessionsByTab[tab] += sessions;
+            usedInCurrent[tab] = true;
+        } else if (offset < 2 * daysInPeriod) {
+            previousSeconds += seconds;
+            usedInPrevious[tab] = true;
+        }
+    }
+
+    private int ordinalOf(String tabName) {
+        Integer ordinal = tabOrdinals.get(tabName);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        int next = tabOrdinals.size();
+        if (next == tabNames.length) {
+            int capacity = tabNames.length * 2;
+            tabNames = Arrays.copyOf(tabNames, capacity);
+            currentSecondsByTab = Arrays.copyOf(currentSecondsByTab, capacity);
+            currentSessionsByTab = Arrays.copyOf(currentSessionsByTab, capacity);
+            usedInCurrent = Arrays.copyOf(usedInCurrent, capacity);
+            usedInPrevious = Arrays.copyOf(usedInPrevious, capacity);
+        }
+        tabOrdinals.put(tabName, next);
+        tabNames[next] = tabName;
+        return next;
+    }
+
+    public long getSecondsOnDay(int offset) {
+        return offset < windowDays ? secondsByDay[offset] : 0L;
+    }
+
+    public long getSecondsInMonth(int monthValue) {
+        return secondsByMonth[monthValue - 1];
+    }
+
+    public long getCurrentSeconds() {
+        return currentSeconds;
+    }
+
+    public long getPreviousSeconds() {
+        return previousSeconds;
+    }
+
+    public int getActiveDays() {
+        int active = 0;
+        for (int d = 0; d < daysInPeriod && d < windowDays; d++) {
+            if (sessionsByDay[d] > 0) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    public int getCurrentFeatureCount() {
+        return count(usedInCurrent);
+    }
+
+    public int getPreviousFeatureCount() {
+        return count(usedInPrevious);
+    }
+
+    public int getTabCount() {
+        return tabOrdinals.size();
+    }
+
+    public String getTabName(int ordinal) {
+        return tabNames[ordinal];
+    }
+
+    public long getCurrentSecondsForTab(int ordinal) {
+        return currentSecondsByTab[ordinal];
+    }
+
+    public int getCurrentSessionsForTab(int ordinal) {
+        return currentSessionsByTab[ordinal];
+    }
+
+    private int count(boolean[] used) {
+        int count = 0;
+        for (int i = 0, n = tabOrdinals.size(); i < n; i++) {
+            if (used[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
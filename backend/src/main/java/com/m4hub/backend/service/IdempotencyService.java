@@ -0,0 +1,117 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.exception.PaymentRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates client retries carrying the same Idempotency-Key.
+ * The first request for a key runs the action; concurrent duplicates wait for
+ * its outcome and later duplicates get the stored result straight away.
+ * A failure is forgotten, so the client can retry with the same key, only when
+ * it is a {@link PaymentRejectedException}, which is thrown before anything is
+ * written. Every other failure (a pending or declined transfer, a database
+ * error) is kept and replayed, because running the action again could pay twice.
+ * Completed outcomes are kept for a configurable TTL.
+ * <p>
+ * Keys live in this node's memory: they do not survive a restart and are not
+ * shared between instances, so retries must reach the same single node.
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${payments.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${payments.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    /**
+     * @param scope       who the key belongs to and what it guards, e.g. "42:transfer"
+     * @param fingerprint stable description of the request; reusing a key for a
+     *                    different request is rejected
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, String fingerprint, Supplier<T> action) {
+        String entryKey = scope + ":" + key;
+        Entry created = new Entry(fingerprint);
+        Entry existing = entries.putIfAbsent(entryKey, created);
+
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IllegalStateException("Idempotency-Key was already used for a different request.");
+            }
+            return (T) await(existing);
+        }
+
+        try {
+            T result = action.get();
+            created.completedAt = System.currentTimeMillis();
+            created.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            if (isKnownNoEffect(e)) {
+                entries.remove(entryKey, created);
+            } else {
+                created.completedAt = System.currentTimeMillis();
+            }
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static boolean isKnownNoEffect(Throwable failure) {
+        return failure instanceof PaymentRejectedException;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.idempotency.cleanup-interval-ms:300000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(ttlMinutes);
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.completedAt > 0 && entry.completedAt < cutoff);
+        int evicted = before - entries.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired idempotency entries", evicted);
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("A request with this Idempotency-Key is still being processed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
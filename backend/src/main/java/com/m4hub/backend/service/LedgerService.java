@@ -0,0 +1,140 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.model.BankAccount;
+import com.m4hub.backend.model.LedgerEntry;
+import com.m4hub.backend.repository.BankAccountRepository;
+import com.m4hub.backend.repository.LedgerEntryRepository;
+import com.m4hub.backend.repository.TransactionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+/**
+ * The only writer of bank account balances.
+ * Each movement is a single conditional UPDATE on the balance column (so
+ * concurrent transfers cannot lose updates or overdraw) plus an append-only
+ * {@link LedgerEntry} in the same transaction.
+ * Movements must be positive; the sign comes from debit or credit.
+ * Syncing with the bank's figure only happens when no transfer on the account
+ * is in flight and nothing moved since the figure was requested, judged by the
+ * account's balance version rather than its value; otherwise the figure may
+ * or may not include a held amount, and booking it would create or destroy
+ * money once the hold settles or is released.
+ */
+@Service
+public class LedgerService {
+
+    public static final String ENTRY_OPENING = "OPENING";
+    public static final String ENTRY_DEBIT = "DEBIT";
+    public static final String ENTRY_CREDIT = "CREDIT";
+    public static final String ENTRY_REVERSAL = "REVERSAL";
+    public static final String ENTRY_SYNC = "SYNC";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * What {@link #syncBalance} needs to know about the account from before
+     * the bank figure was requested.
+     */
+    public record BalanceView(BigDecimal balance, long version, boolean transfersPending) {
+    }
+
+    public LedgerService(BankAccountRepository bankAccountRepository,
+            LedgerEntryRepository ledgerEntryRepository, TransactionRepository transactionRepository) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.transactionRepository = transactionRepository;
+    }
+
+    /**
+     * @return false if the account does not hold {@code amount}; nothing is written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean debit(Long accountId, BigDecimal amount, Long transactionId) {
+        requirePositive(amount);
+        if (bankAccountRepository.debit(accountId, amount) == 0) {
+            return false;
+        }
+        ledgerEntryRepository.save(new LedgerEntry(accountId, transactionId, amount.negate(), ENTRY_DEBIT));
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(Long accountId, BigDecimal amount, Long transactionId, String entryType) {
+        requirePositive(amount);
+        if (bankAccountRepository.credit(accountId, amount) == 0) {
+            throw new RuntimeException("Bank account " + accountId + " not found");
+        }
+        ledgerEntryRepository.save(new LedgerEntry(accountId, transactionId, amount, entryType));
+    }
+
+    /**
+     * Take before requesting the bank figure that will be passed to {@link #syncBalance}.
+     */
+    @Transactional(readOnly = true)
+    public BalanceView view(Long accountId) {
+        BankAccount account = bankAccountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Bank account not found or unauthorized."));
+        return new BalanceView(account.getBalance(), account.getBalanceVersion(), transactionRepository.existsByStatusInvolvingAccount(
+                TransferSettlementService.STATUS_PENDING, accountId));
+    }
+
+    /**
+     * Replace the balance with the bank's figure, booking the difference.
+     * Skipped when a transfer on the account was pending when the figure was
+     * requested or is pending now, or when the balance moved since {@code before},
+     * even if it has since moved back to the same value.
+     *
+     * @param before the account as seen before the figure was requested
+     * @return false if the sync was skipped
+     */
+    @Transactional
+    public boolean syncBalance(Long accountId, BigDecimal balance, BalanceView before) {
+        BigDecimal current = bankAccountRepository.lockBalance(accountId);
+        if (current == null) {
+            throw new RuntimeException("Bank account not found or unauthorized.");
+        }
+        // The row lock above waits out any movement still in flight
+        if (before.transfersPending() || bankAccountRepository.findBalanceVersion(accountId) != before.version()
+                || transactionRepository.existsByStatusInvolvingAccount(TransferSettlementService.STATUS_PENDING,
+                        accountId)) {
+            return false;
+        }
+        if (current.compareTo(balance) != 0) {
+            bankAccountRepository.setBalance(accountId, balance);
+            recordAdjustment(accountId, balance.subtract(current), ENTRY_SYNC);
+        }
+        return true;
+    }
+
+    private static void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Ledger movements must be positive, got " + amount);
+        }
+    }
+
+    /**
+     * Insert a newly linked account and book its opening balance.
+     */
+    @Transactional
+    public BankAccount open(BankAccount account) {
+        BankAccount saved = bankAccountRepository.save(account);
+        recordAdjustment(saved.getId(), saved.getBalance(), ENTRY_OPENING);
+        return saved;
+    }
+
+    /**
+     * Records a balance set outside a transfer, e.g. the opening balance of a
+     * newly linked account.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdjustment(Long accountId, BigDecimal delta, String entryType) {
+        if (delta.signum() != 0) {
+            ledgerEntryRepository.save(new LedgerEntry(accountId, null, delta, entryType));
+        }
+    }
+}
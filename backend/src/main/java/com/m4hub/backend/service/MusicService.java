@@ -1,5 +1,6 @@
 package com.m4hub.backend.service;
 
+import com.m4hub.backend.event.SongCatalogChangedEvent;
 import com.m4hub.backend.model.Favorite;
 import com.m4hub.backend.model.Song;
 import com.m4hub.backend.model.Wishlist;
@@ -9,11 +10,13 @@ import com.m4hub.backend.repository.WishlistRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import com.m4hub.backend.util.DataGenerator;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +35,7 @@ public class MusicService {
     private final RestTemplate restTemplate;
     private final DataGenerator dataGenerator;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${jamendo.api.client_id:56d30c95}")
     private String clientId;
@@ -41,13 +45,15 @@ public class MusicService {
             WishlistRepository wishlistRepository,
             RestTemplate restTemplate,
             DataGenerator dataGenerator,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher) {
         this.songRepository = songRepository;
         this.favoriteRepository = favoriteRepository;
         this.wishlistRepository = wishlistRepository;
         this.restTemplate = restTemplate;
         this.dataGenerator = dataGenerator;
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -60,6 +66,7 @@ public class MusicService {
         if (force) {
             logger.info("Force re-seeding requested. Clearing existing songs...");
             songRepository.deleteAll();
+            eventPublisher.publishEvent(new SongCatalogChangedEvent(Instant.now()));
         }
 
         try {
@@ -88,6 +95,7 @@ public class MusicService {
                 }
             }
             logger.info("Successfully seeded {} songs from JSON.", savedCount);
+            eventPublisher.publishEvent(new SongCatalogChangedEvent(Instant.now()));
 
         } catch (Exception e) {
             logger.error("Failed to seed songs from JSON: {}", e.getMessage(), e);
@@ -136,6 +144,9 @@ public class MusicService {
                     }
                 }
                 logger.info("Sync complete. Saved {} new songs.", savedCount);
+                if (savedCount > 0) {
+                    eventPublisher.publishEvent(new SongCatalogChangedEvent(Instant.now()));
+                }
             }
         } catch (Exception e) {
             logger.error("Error during Jamendo sync: {}. Will try local JSON seed.", e.getMessage());
@@ -201,6 +212,7 @@ public class MusicService {
         logger.info("Starting large-scale mock data seeding...");
         dataGenerator.generate500Songs();
         logger.info("Data seeding complete. Current song count: {}", songRepository.count());
+        eventPublisher.publishEvent(new SongCatalogChangedEvent(Instant.now()));
     }
 
     public List<Song> getTrendingSongs() {
@@ -0,0 +1,64 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.component.ResponseBytesCache;
+import com.m4hub.backend.config.CacheConfig;
+import com.m4hub.backend.event.NewsSyncedEvent;
+import com.m4hub.backend.repository.NewsArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Replaces the cached news lists in place once a sync has committed, instead
+ * of evicting them, so readers never fall through to the database afterwards.
+ * Serialized responses are dropped only after the lists are fresh, and before
+ * the feed version moves on, so a new ETag never carries an old body.
+ */
+@Component
+public class NewsCacheWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(NewsCacheWarmer.class);
+
+    private final CacheManager cacheManager;
+    private final NewsArticleRepository newsArticleRepository;
+    private final ResponseBytesCache responseBytesCache;
+
+    public NewsCacheWarmer(CacheManager cacheManager, NewsArticleRepository newsArticleRepository,
+            ResponseBytesCache responseBytesCache) {
+        this.cacheManager = cacheManager;
+        this.newsArticleRepository = newsArticleRepository;
+        this.responseBytesCache = responseBytesCache;
+    }
+
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNewsSynced(NewsSyncedEvent event) {
+        Cache latest = cacheManager.getCache(CacheConfig.NEWS_LATEST);
+        if (latest != null) {
+            // Key of the no-arg NewsService.getAllNews()
+            latest.put(SimpleKey.EMPTY, newsArticleRepository.findAllByOrderByPublishedAtDesc());
+        }
+
+        Cache byCategory = cacheManager.getCache(CacheConfig.NEWS_BY_CATEGORY);
+        if (byCategory != null) {
+            Set<Object> categories = new LinkedHashSet<>(NewsService.CATEGORIES);
+            if (byCategory.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                categories.addAll(nativeCache.asMap().keySet());
+            }
+            for (Object category : categories) {
+                byCategory.put(category, newsArticleRepository.findByCategoryOrderByPublishedAtDesc(
+                        category.toString()));
+            }
+        }
+        responseBytesCache.evictNamespace(ResponseBytesCache.NEWS);
+        logger.debug("News caches refreshed after sync at {}", event.getSyncedAt());
+    }
+}
@@ -1,31 +1,105 @@
 package com.m4hub.backend.service;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m4hub.backend.config.CacheConfig;
+import com.m4hub.backend.dto.NewsPageDto;
+import com.m4hub.backend.event.NewsSyncedEvent;
 import com.m4hub.backend.model.NewsArticle;
 import com.m4hub.backend.repository.NewsArticleRepository;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class NewsService {
     private static final Logger logger = LoggerFactory.getLogger(NewsService.class);
 
+    // ok.surf returns news grouped by categories: Business, Entertainment, Health,
+    // Science, Sports, Technology, World
+    public static final List<String> CATEGORIES = List.of("Business", "Entertainment", "Health", "Science",
+            "Sports", "Technology", "World");
+
+    private static final String UPSERT_SQL = "INSERT INTO news_articles "
+            + "(external_id, title, description, source_name, url, url_to_image, published_at, category, "
+            + "last_seen_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (external_id) DO NOTHING";
+    private static final String TOUCH_SQL = "UPDATE news_articles SET last_seen_at = ? "
+            + "WHERE external_id = ANY (?)";
+    private static final String DELETE_MOCKS_SQL = "DELETE FROM news_articles WHERE external_id LIKE '%mock%'";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM news_articles WHERE last_seen_at < ?";
+    private static final int UPSERT_BATCH_SIZE = 200;
+
+    public static final int MAX_FEED_PAGE_SIZE = 50;
+
     private final NewsArticleRepository newsArticleRepository;
     private final RestTemplate restTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int retentionDays;
+    private final boolean fetchPerCategory;
+    private final ThreadPoolTaskExecutor fetchExecutor;
 
     private static final String url = "https://ok.surf/api/v1/cors/news-feed";
+    private static final String sectionUrl = "https://ok.surf/api/v1/news-section";
 
-    public NewsService(NewsArticleRepository newsArticleRepository, RestTemplate restTemplate) {
+    public NewsService(NewsArticleRepository newsArticleRepository, RestTemplate restTemplate,
+            JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+            @Value("${news.retention-days:30}") int retentionDays,
+            @Value("${news.fetch.per-category:false}") boolean fetchPerCategory,
+            @Value("${news.fetch.parallelism:3}") int fetchParallelism) {
         this.newsArticleRepository = newsArticleRepository;
         this.restTemplate = restTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.retentionDays = retentionDays;
+        this.fetchPerCategory = fetchPerCategory;
+
+        this.fetchExecutor = new ThreadPoolTaskExecutor();
+        fetchExecutor.setCorePoolSize(fetchParallelism);
+        fetchExecutor.setMaxPoolSize(fetchParallelism);
+        fetchExecutor.setQueueCapacity(CATEGORIES.size());
+        fetchExecutor.setThreadNamePrefix("M4HubNewsFetch-");
+        fetchExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdown();
     }
 
     @Scheduled(fixedRate = 7200000) // 2 hours
@@ -38,77 +112,234 @@ public class NewsService {
         }
     }
 
-    @Transactional
-    @org.springframework.cache.annotation.CacheEvict(value = "news", allEntries = true)
-    @SuppressWarnings("unchecked")
+    /**
+     * Fetch the feed, then upsert it and purge expired rows in set-based
+     * statements. Articles still in the feed have their last-seen time
+     * refreshed, and only articles the feed has stopped listing expire, so a
+     * long-running story is never purged and re-inserted as new. The HTTP call
+     * runs before any connection is taken, so a slow feed never holds a
+     * transaction open. Caches are refreshed by
+     * NewsCacheWarmer from the published event.
+     */
     public void syncNews() {
-        // One-time cleanup: Remove legacy mock data if it exists
-        long mockCount = newsArticleRepository.count();
-        if (mockCount > 0) {
-            List<NewsArticle> allArticles = newsArticleRepository.findAll();
-            List<NewsArticle> mocks = allArticles.stream()
-                    .filter(a -> a.getExternalId() != null && a.getExternalId().contains("mock"))
-                    .toList();
-            if (!mocks.isEmpty()) {
-                logger.info("Cleaning up {} legacy mock articles...", mocks.size());
-                newsArticleRepository.deleteAll(mocks);
+        List<NewsArticle> fetched;
+        try {
+            fetched = fetchFeed();
+        } catch (Exception e) {
+            logger.error("Error fetching news from external source: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch news from external source", e);
+        }
+
+        List<NewsArticle> saved = upsertArticles(fetched);
+        touchArticles(fetched);
+        int purged = purgeArticles();
+        logger.info("Live News sync complete. Saved {} new articles, purged {}.", saved.size(), purged);
+
+        Map<String, Integer> newByCategory = new TreeMap<>();
+        for (NewsArticle article : saved) {
+            newByCategory.merge(article.getCategory(), 1, Integer::sum);
+        }
+        eventPublisher.publishEvent(new NewsSyncedEvent(saved.size(), purged, newByCategory, Instant.now()));
+    }
+
+    private List<NewsArticle> fetchFeed() {
+        if (!fetchPerCategory) {
+            List<NewsArticle> articles = restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> parseFeed(response.getBody()));
+            return articles != null ? articles : List.of();
+        }
+
+        // One section request per category, at most news.fetch.parallelism at a
+        // time; a failed category is skipped rather than failing the whole sync
+        Map<String, CompletableFuture<List<NewsArticle>>> sections = new LinkedHashMap<>();
+        for (String category : CATEGORIES) {
+            sections.put(category, CompletableFuture.supplyAsync(() -> fetchSection(category), fetchExecutor));
+        }
+        List<NewsArticle> articles = new ArrayList<>();
+        int failed = 0;
+        for (Map.Entry<String, CompletableFuture<List<NewsArticle>>> section : sections.entrySet()) {
+            try {
+                articles.addAll(section.getValue().join());
+            } catch (CompletionException e) {
+                failed++;
+                logger.warn("Could not fetch news for {}: {}", section.getKey(), e.getCause().getMessage());
             }
         }
+        if (failed == sections.size()) {
+            throw new RuntimeException("Every news section request failed");
+        }
+        return articles;
+    }
 
-        try {
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            if (response != null) {
-                int savedCount = 0;
-
-                // ok.surf returns news grouped by categories: Business, Entertainment, Health,
-                // Science, Sports, Technology, World
-                String[] categories = { "Business", "Entertainment", "Health", "Science", "Sports", "Technology",
-                        "World" };
-
-                for (String category : categories) {
-                    if (response.containsKey(category)) {
-                        List<Map<String, Object>> articles = (List<Map<String, Object>>) response.get(category);
-
-                        for (Map<String, Object> articleData : articles) {
-                            String title = (String) articleData.get("title");
-                            String link = (String) articleData.get("link");
-                            String imageUrl = (String) articleData.get("og");
-                            String sourceName = (String) articleData.get("source");
-
-                            // Use a hash of the link as externalId to avoid length issues in DB
-                            String externalId = String.valueOf(link.hashCode());
-                            if (newsArticleRepository.findByExternalId(externalId).isEmpty()) {
-                                NewsArticle article = new NewsArticle();
-                                article.setExternalId(externalId);
-                                article.setTitle(title);
-                                article.setDescription(title); // This API doesn't provide excerpt, use title or
-                                                               // generate
-                                article.setSourceName(sourceName);
-                                article.setUrl(link);
-                                article.setUrlToImage(imageUrl);
-                                article.setPublishedAt(LocalDateTime.now()); // API doesn't provide date, use current
-                                article.setCategory(category);
-
-                                newsArticleRepository.save(article);
-                                savedCount++;
-                            }
-                        }
+    private List<NewsArticle> fetchSection(String category) {
+        List<NewsArticle> articles = restTemplate.execute(sectionUrl, HttpMethod.POST, request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            objectMapper.writeValue(request.getBody(), Map.of("sections", List.of(category)));
+        }, response -> parseFeed(response.getBody()));
+        return articles != null ? articles : List.of();
+    }
+
+    // Parsed token by token straight off the response stream; only one
+    // article object is materialized at a time. Both endpoints answer with
+    // articles grouped under their category name.
+    private List<NewsArticle> parseFeed(InputStream body) throws IOException {
+        List<NewsArticle> parsed = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return parsed;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String category = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!CATEGORIES.contains(category) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    NewsArticle article = toArticle(parser.readValueAs(FeedItem.class), category);
+                    if (article != null) {
+                        parsed.add(article);
                     }
                 }
-                logger.info("Live News sync complete. Saved {} new articles.", savedCount);
             }
-        } catch (Exception e) {
-            logger.error("Error fetching news from external source: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch news from external source", e);
         }
+        return parsed;
+    }
+
+    private static NewsArticle toArticle(FeedItem item, String category) {
+        if (item.link == null || item.link.isBlank()) {
+            return null;
+        }
+        NewsArticle article = new NewsArticle();
+        article.setExternalId(externalIdFor(item.link));
+        article.setTitle(item.title);
+        article.setDescription(item.title); // This API doesn't provide excerpt, use title
+        article.setSourceName(item.source);
+        article.setUrl(item.link);
+        article.setUrlToImage(item.og);
+        article.setPublishedAt(LocalDateTime.now()); // API doesn't provide date, use current
+        article.setLastSeenAt(article.getPublishedAt());
+        article.setCategory(category);
+        return article;
+    }
+
+    // SHA-256 of the link: fixed length and, unlike String.hashCode, no
+    // realistic chance of two articles colliding on the unique key
+    static String externalIdFor(String link) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(link.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Returns the articles that were actually inserted
+    private List<NewsArticle> upsertArticles(List<NewsArticle> articles) {
+        if (articles.isEmpty()) {
+            return List.of();
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, articles, UPSERT_BATCH_SIZE, (ps, article) -> {
+            ps.setString(1, article.getExternalId());
+            ps.setString(2, article.getTitle());
+            ps.setString(3, article.getDescription());
+            ps.setString(4, article.getSourceName());
+            ps.setString(5, article.getUrl());
+            ps.setString(6, article.getUrlToImage());
+            ps.setTimestamp(7, Timestamp.valueOf(article.getPublishedAt()));
+            ps.setString(8, article.getCategory());
+            ps.setTimestamp(9, Timestamp.valueOf(article.getLastSeenAt()));
+        });
+        // Counts come back batch by batch in input order; existing articles
+        // hit ON CONFLICT DO NOTHING and report 0
+        List<NewsArticle> inserted = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    inserted.add(articles.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+
+    // One statement for the whole feed rather than a row per article
+    private void touchArticles(List<NewsArticle> articles) {
+        if (articles.isEmpty()) {
+            return;
+        }
+        String[] externalIds = articles.stream().map(NewsArticle::getExternalId).distinct().toArray(String[]::new);
+        jdbcTemplate.update(TOUCH_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(2, ps.getConnection().createArrayOf("text", externalIds));
+        });
+    }
+
+    private int purgeArticles() {
+        int mocks = jdbcTemplate.update(DELETE_MOCKS_SQL);
+        if (mocks > 0) {
+            logger.info("Cleaned up {} legacy mock articles", mocks);
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        return mocks + jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class FeedItem {
+        public String title;
+        public String link;
+        public String og;
+        public String source;
+    }
+
+    /**
+     * One page of the feed, newest first, optionally for one category,
+     * continuing after {@code cursor} (the previous page's nextCursor).
+     */
+    public NewsPageDto getFeedPage(String category, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        // One extra row tells us whether another page exists
+        Pageable firstRows = PageRequest.of(0, pageSize + 1);
+
+        List<NewsArticle> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = category == null
+                    ? newsArticleRepository.findFeedPage(firstRows)
+                    : newsArticleRepository.findFeedPageByCategory(category, firstRows);
+        } else {
+            LocalDateTime cursorPublishedAt;
+            Long cursorId;
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+                cursorPublishedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid feed cursor");
+            }
+            rows = category == null
+                    ? newsArticleRepository.findFeedPageAfter(cursorPublishedAt, cursorId, firstRows)
+                    : newsArticleRepository.findFeedPageByCategoryAfter(category, cursorPublishedAt, cursorId,
+                            firstRows);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new NewsPageDto(rows, null);
+        }
+        List<NewsArticle> page = rows.subList(0, pageSize);
+        NewsArticle last = page.get(pageSize - 1);
+        String nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.getPublishedAt() + "," + last.getId()).getBytes(StandardCharsets.UTF_8));
+        return new NewsPageDto(page, nextCursor);
     }
 
-    @org.springframework.cache.annotation.Cacheable("news")
+    @Cacheable(value = CacheConfig.NEWS_LATEST, sync = true)
     public List<NewsArticle> getAllNews() {
         return newsArticleRepository.findAllByOrderByPublishedAtDesc();
     }
 
-    @org.springframework.cache.annotation.Cacheable(value = "news", key = "#category")
+    @Cacheable(value = CacheConfig.NEWS_BY_CATEGORY, key = "#category", sync = true)
     public List<NewsArticle> getNewsByCategory(String category) {
         return newsArticleRepository.findByCategoryOrderByPublishedAtDesc(category);
     }
@@ -0,0 +1,47 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.component.NewsFeedVersion;
+import com.m4hub.backend.dto.NewsUpdateDto;
+import com.m4hub.backend.event.NewsSyncedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Announces new articles on /topic/news after a sync, so clients learn about
+ * them from one small broadcast instead of polling the full list.
+ */
+@Component
+public class NewsUpdatePublisher {
+    private static final Logger logger = LoggerFactory.getLogger(NewsUpdatePublisher.class);
+
+    public static final String TOPIC = "/topic/news";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NewsFeedVersion newsFeedVersion;
+
+    public NewsUpdatePublisher(SimpMessagingTemplate messagingTemplate, NewsFeedVersion newsFeedVersion) {
+        this.messagingTemplate = messagingTemplate;
+        this.newsFeedVersion = newsFeedVersion;
+    }
+
+    // Last: clients react by refetching, which must see the warmed caches and new version
+    @Order(3)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNewsSynced(NewsSyncedEvent event) {
+        if (event.getSavedCount() == 0) {
+            return;
+        }
+        NewsUpdateDto update = new NewsUpdateDto(event.getSavedCount(), event.getNewArticlesByCategory(),
+                newsFeedVersion.getETag(), event.getSyncedAt());
+        try {
+            messagingTemplate.convertAndSend(TOPIC, update);
+        } catch (Exception e) {
+            logger.warn("Could not publish news update: {}", e.getMessage());
+        }
+    }
+}
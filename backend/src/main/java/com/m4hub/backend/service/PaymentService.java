@@ -1,5 +1,12 @@
 package com.m4hub.backend.service;
 
+import com.m4hub.backend.component.BalanceSnapshotCache;
+import com.m4hub.backend.dto.TransactionFilter;
+import com.m4hub.backend.dto.TransactionPageDto;
+import com.m4hub.backend.dto.TransactionSummaryDto;
+import com.m4hub.backend.exception.BankingGatewayException;
+import com.m4hub.backend.exception.PaymentRejectedException;
+import com.m4hub.backend.exception.TransferPendingException;
 import com.m4hub.backend.model.Beneficiary;
 import com.m4hub.backend.model.BankAccount;
 import com.m4hub.backend.model.Transaction;
@@ -8,18 +15,26 @@ import com.m4hub.backend.repository.BankAccountRepository;
 import com.m4hub.backend.repository.TransactionRepository;
 import com.m4hub.backend.repository.UserRepository;
 import com.m4hub.backend.repository.BeneficiaryRepository;
+import com.m4hub.backend.repository.LedgerEntryRepository;
+import com.m4hub.backend.repository.TransactionHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class PaymentService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private BankAccountRepository bankAccountRepository;
 
@@ -35,24 +50,44 @@ public class PaymentService {
     @Autowired
     private com.m4hub.backend.component.BankingGateway bankingGateway;
 
+    @Autowired
+    private TransferSettlementService transferSettlementService;
+
+    @Autowired
+    private com.m4hub.backend.component.UpiPinHasher upiPinHasher;
+
+    @Autowired
+    private BalanceSnapshotCache balanceSnapshotCache;
+
+    @Autowired
+    private com.m4hub.backend.component.AccountVerificationCache accountVerificationCache;
+
+    @Value("${payments.verification.beneficiary-ttl-days:30}")
+    private long beneficiaryVerificationTtlDays;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionHistoryRepository transactionHistoryRepository;
+
     /**
-     * Securely hash the UPI PIN using SHA-256 (matches AuthService logic)
+     * Check the UPI PIN against the account, upgrading a legacy or
+     * under-strength hash in place once the PIN is known to be correct.
      */
-    private String hashPin(String pin) {
-        try {
-            java.security.MessageDigest digest = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(pin.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1)
-                    hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Security error while protecting PIN", e);
+    private boolean pinMatches(BankAccount account, String upiPin) {
+        if (!upiPinHasher.matches(upiPin, account.getUpiPin())) {
+            return false;
+        }
+        if (upiPinHasher.needsRehash(account.getUpiPin())) {
+            String upgraded = upiPinHasher.hash(upiPin);
+            bankAccountRepository.updateUpiPin(account.getId(), upgraded);
+            account.setUpiPin(upgraded);
         }
+        return true;
     }
 
     public List<BankAccount> getBankAccounts(User user) {
@@ -64,7 +99,10 @@ public class PaymentService {
                 .filter(acc -> acc.getUser().getId().equals(user.getId()));
     }
 
-    @Transactional
+    /**
+     * Verification and the opening balance come from the gateway before any
+     * transaction is opened; only the insert and its ledger entry run in one.
+     */
     public BankAccount linkBankAccount(User user, String accountNumber, String bankName,
             String ifscCode, String accountHolderName, String upiPin) {
         List<BankAccount> existing = bankAccountRepository.findByUser(user);
@@ -83,16 +121,16 @@ public class PaymentService {
         // If this is the first account, make it primary
         account.setIsPrimary(existing.isEmpty());
 
-        boolean isVerified = bankingGateway.verifyBankAccount(accountNumber, ifscCode, accountHolderName);
+        boolean isVerified = accountVerificationCache.verify(accountNumber, ifscCode, accountHolderName);
         account.setIsVerified(isVerified);
 
         if (!isVerified) {
             throw new RuntimeException("Bank account verification failed. Please check your details.");
         }
 
-        account.setUpiPin(hashPin(upiPin));
+        account.setUpiPin(upiPinHasher.hash(upiPin));
         account.setBalance(bankingGateway.getMockBalance(accountNumber));
-        return bankAccountRepository.save(account);
+        return ledgerService.open(account);
     }
 
     @Transactional
@@ -146,7 +184,16 @@ public class PaymentService {
         b.setIfscCode(ifsc);
         b.setPhoneNumber(phone);
         b.setType(type);
-        return beneficiaryRepository.save(b);
+
+        // Details the bank confirmed recently (e.g. a transfer just made to
+        // them) are saved as verified, as are earlier copies of the same details
+        Instant verifiedAt = accountVerificationCache.isVerified(accountNumber, ifsc, name) ? Instant.now() : null;
+        b.setVerifiedAt(verifiedAt);
+        Beneficiary saved = beneficiaryRepository.save(b);
+        if (verifiedAt != null) {
+            beneficiaryRepository.markVerified(user, accountNumber, ifsc, name, verifiedAt);
+        }
+        return saved;
     }
 
     public List<Beneficiary> getBeneficiaries(User user) {
@@ -162,154 +209,237 @@ public class PaymentService {
         beneficiaryRepository.delete(b);
     }
 
-    @Transactional
+    /**
+     * Transfer to another M4hub user's primary account.
+     * Validation runs without a transaction; funds are then reserved, the
+     * gateway is called with no DB transaction open, and the reservation is
+     * settled or released depending on the outcome.
+     */
     public Transaction transferMoney(User sender, Long sourceAccountId, Long receiverId, BigDecimal amount,
             String upiPin,
             String description) {
         BankAccount senderAccount = bankAccountRepository.findById(sourceAccountId)
                 .filter(acc -> acc.getUser().getId().equals(sender.getId()))
-                .orElseThrow(() -> new RuntimeException("Source bank account not found or unauthorized."));
+                .orElseThrow(() -> new PaymentRejectedException("Source bank account not found or unauthorized."));
 
         // VERIFICATION: Check if sender's account is verified
         if (!senderAccount.getIsVerified()) {
-            throw new RuntimeException("Your bank account is not verified. Please re-link your account.");
+            throw new PaymentRejectedException("Your bank account is not verified. Please re-link your account.");
         }
 
         // PRODUCTION UPDATE: Verify hashed PIN
-        String hashedInput = hashPin(upiPin);
-        if (!senderAccount.getUpiPin().equals(hashedInput)) {
-            throw new RuntimeException("Incorrect UPI PIN. Please try again.");
+        if (!pinMatches(senderAccount, upiPin)) {
+            throw new PaymentRejectedException("Incorrect UPI PIN. Please try again.");
         }
 
+        // Early rejection only; the authoritative check happens under lock
         if (senderAccount.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient funds in your account.");
+            throw new PaymentRejectedException("Insufficient funds in your account.");
         }
 
         User receiver = userRepository.findById(receiverId)
-                .orElseThrow(() -> new RuntimeException("Recipient not found."));
+                .orElseThrow(() -> new PaymentRejectedException("Recipient not found."));
 
         BankAccount receiverAccount = bankAccountRepository.findByUserAndIsPrimary(receiver, true)
                 .orElseGet(() -> {
                     List<BankAccount> all = bankAccountRepository.findByUser(receiver);
                     if (all.isEmpty())
-                        throw new RuntimeException("Recipient does not have a linked bank account.");
+                        throw new PaymentRejectedException("Recipient does not have a linked bank account.");
                     return all.get(0);
                 });
 
         // VERIFICATION: Check if receiver's account is verified
         if (!receiverAccount.getIsVerified()) {
-            throw new RuntimeException("Recipient's bank account is not verified. Transfer cannot proceed.");
+            throw new PaymentRejectedException("Recipient's bank account is not verified. Transfer cannot proceed.");
         }
 
+        Transaction pending = transferSettlementService.reserve(sender, senderAccount.getId(), receiver,
+                receiverAccount.getId(), amount, description);
+
         // CORE INTEGRATION: Call the external Banking Gateway
-        String externalRefId = bankingGateway.executeExternalTransfer(
-                senderAccount.getAccountNumber(),
-                receiverAccount.getAccountNumber(),
-                amount);
-
-        // Atomically update balances locally (reflecting the successful external
-        // transfer)
-        senderAccount.setBalance(senderAccount.getBalance().subtract(amount));
-        receiverAccount.setBalance(receiverAccount.getBalance().add(amount));
-
-        bankAccountRepository.save(senderAccount);
-        bankAccountRepository.save(receiverAccount);
-
-        // Record transaction with the External Reference
-        Transaction transaction = new Transaction();
-        transaction.setSender(sender);
-        transaction.setReceiver(receiver);
-        transaction.setAmount(amount);
-        transaction.setDescription(description + " (Ref: " + externalRefId + ")");
-        transaction.setStatus("SUCCESS");
-        transaction.setTimestamp(Instant.now());
-
-        return transactionRepository.save(transaction);
+        return completeTransfer(pending, senderAccount.getAccountNumber(), receiverAccount.getAccountNumber());
     }
 
-    @Transactional
+    /**
+     * Transfer to an arbitrary bank account outside M4hub.
+     */
     public Transaction transferToAccount(User sender, Long sourceAccountId, String recipientName, String accountNumber,
             String ifsc,
             BigDecimal amount, String upiPin, String description) {
+        BankAccount senderAccount = authorizeSourceAccount(sender, sourceAccountId, upiPin);
+
+        if (senderAccount.getBalance().compareTo(amount) < 0) {
+            throw new PaymentRejectedException("Insufficient funds.");
+        }
+
+        // Verify Beneficiary via Gateway
+        boolean valid = verifyRecipient(sender, recipientName, accountNumber, ifsc);
+        if (!valid) {
+            throw new PaymentRejectedException("Beneficiary bank account verification failed.");
+        }
+
+        return payExternalAccount(sender, senderAccount, recipientName, accountNumber, amount, description);
+    }
+
+    /**
+     * Confirm external account details with the bank, skipping the call when
+     * they match one of the sender's beneficiaries verified recently or were
+     * checked recently by anyone. Matching beneficiaries get their
+     * verified-at stamp refreshed.
+     */
+    public boolean verifyRecipient(User sender, String recipientName, String accountNumber, String ifsc) {
+        Instant freshAfter = Instant.now().minus(beneficiaryVerificationTtlDays, ChronoUnit.DAYS);
+        List<Beneficiary> saved = beneficiaryRepository.findByUserAndAccountNumberAndIfscCode(sender,
+                accountNumber, ifsc);
+        boolean recentlyVerified = saved.stream()
+                .anyMatch(b -> b.getVerifiedAt() != null && b.getVerifiedAt().isAfter(freshAfter)
+                        && b.getName().trim().equalsIgnoreCase(recipientName.trim()));
+        if (recentlyVerified) {
+            return true;
+        }
+
+        boolean valid = accountVerificationCache.verify(accountNumber, ifsc, recipientName);
+        if (valid && !saved.isEmpty()) {
+            beneficiaryRepository.markVerified(sender, accountNumber, ifsc, recipientName, Instant.now());
+        }
+        return valid;
+    }
+
+    /**
+     * The sender's own, verified account, unlocked by the UPI PIN.
+     */
+    public BankAccount authorizeSourceAccount(User sender, Long sourceAccountId, String upiPin) {
         BankAccount senderAccount = bankAccountRepository.findById(sourceAccountId)
                 .filter(acc -> acc.getUser().getId().equals(sender.getId()))
-                .orElseThrow(() -> new RuntimeException("Source bank account not found or unauthorized."));
+                .orElseThrow(() -> new PaymentRejectedException("Source bank account not found or unauthorized."));
 
         if (!senderAccount.getIsVerified()) {
-            throw new RuntimeException("Your bank account is not verified.");
+            throw new PaymentRejectedException("Your bank account is not verified.");
         }
 
         // Verify PIN
-        String hashedInput = hashPin(upiPin);
-        if (!senderAccount.getUpiPin().equals(hashedInput)) {
-            throw new RuntimeException("Incorrect UPI PIN.");
-        }
-
-        if (senderAccount.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient funds.");
+        if (!pinMatches(senderAccount, upiPin)) {
+            throw new PaymentRejectedException("Incorrect UPI PIN.");
         }
+        return senderAccount;
+    }
 
-        // Verify Beneficiary via Gateway
-        boolean valid = bankingGateway.verifyBankAccount(accountNumber, ifsc, recipientName);
-        if (!valid) {
-            throw new RuntimeException("Beneficiary bank account verification failed.");
-        }
+    /**
+     * Reserve, execute and settle a transfer to an already verified external
+     * account from an already authorized source account.
+     */
+    public Transaction payExternalAccount(User sender, BankAccount senderAccount, String recipientName,
+            String accountNumber, BigDecimal amount, String description) {
+        Transaction pending = transferSettlementService.reserve(sender, senderAccount.getId(), null, null, amount,
+                "To: " + recipientName + " (" + accountNumber + ") - " + description);
 
         // Execute External Transfer
-        String externalRefId = bankingGateway.executeExternalTransfer(
-                senderAccount.getAccountNumber(),
-                accountNumber,
-                amount);
-
-        // Deduct Balance
-        senderAccount.setBalance(senderAccount.getBalance().subtract(amount));
-        bankAccountRepository.save(senderAccount);
-
-        // Record Transaction
-        Transaction transaction = new Transaction();
-        transaction.setSender(sender);
-        transaction.setReceiver(null); // External Transfer
-        transaction.setAmount(amount);
-        transaction.setDescription(
-                "To: " + recipientName + " (" + accountNumber + ") - " + description + " Ref: " + externalRefId);
-        transaction.setStatus("SUCCESS");
-        transaction.setTimestamp(Instant.now());
-
-        return transactionRepository.save(transaction);
+        return completeTransfer(pending, senderAccount.getAccountNumber(), accountNumber);
+    }
+
+    /**
+     * Only a definite "not executed" releases the hold. When the bank's answer
+     * is unknown (timeout, outage mid-call) the transfer stays PENDING and
+     * {@link TransferSettlementService#releaseStaleReservations} settles or
+     * releases it once the bank has been asked what happened.
+     */
+    private Transaction completeTransfer(Transaction pending, String fromAccountNumber, String toAccountNumber) {
+        String externalRefId;
+        try {
+            externalRefId = bankingGateway.executeExternalTransfer(
+                    TransferSettlementService.gatewayReference(pending.getId()), fromAccountNumber, toAccountNumber,
+                    pending.getAmount());
+        } catch (BankingGatewayException e) {
+            if (!e.isOutcomeKnown()) {
+                throw new TransferPendingException(pending.getId(), e);
+            }
+            transferSettlementService.release(pending.getId(), e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            throw new TransferPendingException(pending.getId(), e);
+        }
+        Transaction settled;
+        try {
+            settled = transferSettlementService.settle(pending.getId(), externalRefId);
+        } catch (RuntimeException e) {
+            // The money has moved; the sweep settles it from the bank's record
+            throw new TransferPendingException(pending.getId(), e);
+        }
+        balanceSnapshotCache.evict(settled.getSourceAccountId());
+        balanceSnapshotCache.evict(settled.getDestinationAccountId());
+        return settled;
     }
 
     public List<Transaction> getTransactionHistory(User user) {
         return transactionRepository.findBySenderOrReceiverOrderByTimestampDesc(user, user);
     }
 
+    /**
+     * One page of history, newest first, continuing after {@code cursor} (as
+     * returned in the previous page's nextCursor) when given.
+     */
+    public TransactionPageDto getTransactionHistoryPage(User user, TransactionFilter filter, String cursor,
+            int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        Instant cursorTimestamp = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+                cursorTimestamp = Instant.parse(parts[0]);
+                cursorId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+        }
+
+        // One extra row tells us whether another page exists
+        List<TransactionSummaryDto> rows = transactionHistoryRepository.findPage(user.getId(), filter,
+                cursorTimestamp, cursorId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new TransactionPageDto(rows, null);
+        }
+
+        List<TransactionSummaryDto> page = rows.subList(0, pageSize);
+        TransactionSummaryDto last = page.get(pageSize - 1);
+        String nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.getTimestamp() + "," + last.getId()).getBytes(StandardCharsets.UTF_8));
+        return new TransactionPageDto(page, nextCursor);
+    }
+
     public Optional<User> findUserByPhone(String phoneNumber) {
         return userRepository.findByPhoneNumber(phoneNumber);
     }
 
-    @Transactional
     public BigDecimal checkBalance(User user, Long accountId, String upiPin) {
         BankAccount account = bankAccountRepository.findById(accountId)
                 .filter(acc -> acc.getUser().getId().equals(user.getId()))
                 .orElseThrow(() -> new RuntimeException("Bank account not found or unauthorized."));
 
         // Verify PIN
-        String hashedInput = hashPin(upiPin);
-        if (!account.getUpiPin().equals(hashedInput)) {
+        if (!pinMatches(account, upiPin)) {
             throw new RuntimeException("Incorrect UPI PIN. Please try again.");
         }
 
-        // Fetch latest live balance from gateway
-        BigDecimal liveBalance = bankingGateway.getMockBalance(account.getAccountNumber());
+        LedgerService.BalanceView before = ledgerService.view(accountId);
+        long seenAtNanos = System.nanoTime();
 
-        // Update local cache
-        account.setBalance(liveBalance);
-        bankAccountRepository.save(account);
+        // Latest live balance from gateway; polls within the snapshot TTL and
+        // concurrent checks of the same account share one gateway call
+        BalanceSnapshotCache.Snapshot live = balanceSnapshotCache.getSnapshot(accountId, account.getAccountNumber());
+
+        // Only a figure requested after the view was taken can be compared with it
+        if (live.fetchStartedNanos() - seenAtNanos >= 0 && live.balance().compareTo(before.balance()) != 0) {
+            ledgerService.syncBalance(accountId, live.balance(), before);
+        }
 
-        return liveBalance;
+        return live.balance();
     }
 
     public void resetAllMoneyData() {
+        ledgerEntryRepository.deleteAll();
         transactionRepository.deleteAll();
         bankAccountRepository.deleteAll();
+        balanceSnapshotCache.evictAll();
     }
 }
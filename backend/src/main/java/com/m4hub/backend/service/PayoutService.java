@@ -0,0 +1,298 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.dto.PayoutItemDto;
+import com.m4hub.backend.dto.PayoutItemRequest;
+import com.m4hub.backend.dto.PayoutJobDto;
+import com.m4hub.backend.exception.PaymentRejectedException;
+import com.m4hub.backend.exception.TransferPendingException;
+import com.m4hub.backend.model.BankAccount;
+import com.m4hub.backend.model.Beneficiary;
+import com.m4hub.backend.model.Transaction;
+import com.m4hub.backend.model.User;
+import com.m4hub.backend.repository.BeneficiaryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk payouts: many external transfers from one source account as a single job.
+ * The PIN and every recipient are checked at submission, so a bad recipient
+ * rejects the whole job before anything is paid. Items are then paid on a
+ * small dedicated pool, so a job never takes more than
+ * {@code payouts.max-concurrent-calls} gateway slots. A job is only accepted
+ * when the pool can queue all of its items and the sender is under
+ * {@code payouts.max-active-jobs-per-user}, so a job either starts whole or
+ * not at all. A rejected submission has written nothing and throws
+ * {@link PaymentRejectedException}. Each item's progress is pushed to the sender's
+ * /user/queue/payouts and the whole job can be polled.
+ */
+@Service
+public class PayoutService {
+    private static final Logger logger = LoggerFactory.getLogger(PayoutService.class);
+
+    public static final int MAX_ITEMS_PER_JOB = 100;
+    private static final int MAX_QUEUED_ITEMS = MAX_ITEMS_PER_JOB * 50;
+
+    private final PaymentService paymentService;
+    private final BeneficiaryRepository beneficiaryRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxActiveJobsPerUser;
+
+    private final Map<String, PayoutJob> jobs = new ConcurrentHashMap<>();
+    // One permit per item not yet processed, so the pool's queue never overflows
+    private final Semaphore itemSlots = new Semaphore(MAX_QUEUED_ITEMS);
+
+    public PayoutService(PaymentService paymentService,
+            BeneficiaryRepository beneficiaryRepository,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${payouts.max-concurrent-calls:4}") int maxConcurrentCalls,
+            @Value("${payouts.max-active-jobs-per-user:2}") int maxActiveJobsPerUser) {
+        this.paymentService = paymentService;
+        this.beneficiaryRepository = beneficiaryRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.maxActiveJobsPerUser = maxActiveJobsPerUser;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentCalls);
+        executor.setMaxPoolSize(maxConcurrentCalls);
+        executor.setQueueCapacity(MAX_QUEUED_ITEMS);
+        executor.setThreadNamePrefix("M4HubPayout-");
+        executor.initialize();
+    }
+
+    /**
+     * Validate the request, authorize the source account, verify every
+     * recipient and start the job.
+     *
+     * @return the job, with every item QUEUED
+     */
+    public PayoutJobDto submit(User sender, Long sourceAccountId, String upiPin, List<PayoutItemRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new PaymentRejectedException("A payout needs at least one recipient.");
+        }
+        if (requests.size() > MAX_ITEMS_PER_JOB) {
+            throw new PaymentRejectedException("A payout can have at most " + MAX_ITEMS_PER_JOB + " recipients.");
+        }
+
+        List<PayoutItem> items = new ArrayList<>(requests.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (PayoutItemRequest request : requests) {
+            PayoutItem item = resolve(sender, items.size(), request);
+            total = total.add(item.amount);
+            items.add(item);
+        }
+
+        BankAccount sourceAccount = paymentService.authorizeSourceAccount(sender, sourceAccountId, upiPin);
+        if (sourceAccount.getBalance().compareTo(total) < 0) {
+            throw new PaymentRejectedException("Insufficient funds for the whole payout.");
+        }
+        for (PayoutItem item : items) {
+            if (!paymentService.verifyRecipient(sender, item.recipientName, item.accountNumber, item.ifsc)) {
+                throw new PaymentRejectedException(
+                        "Recipient " + (item.index + 1) + ": beneficiary bank account verification failed.");
+            }
+        }
+
+        PayoutJob job = admit(new PayoutJob(UUID.randomUUID().toString(), sender, sourceAccount, items));
+        logger.info("Payout job {} submitted by user {} with {} items", job.id, sender.getId(), items.size());
+
+        List<CompletableFuture<Void>> runs = new ArrayList<>(items.size());
+        for (PayoutItem item : items) {
+            runs.add(schedule(job, item));
+        }
+        CompletableFuture.allOf(runs.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, error) -> {
+                    job.finishedAt = Instant.now();
+                    logger.info("Payout job {} finished", job.id);
+                });
+        return job.toDto();
+    }
+
+    // Capacity is checked and taken before the job becomes visible, so a
+    // rejected submission has started nothing
+    private synchronized PayoutJob admit(PayoutJob job) {
+        long active = jobs.values().stream()
+                .filter(other -> other.finishedAt == null && other.sender.getId().equals(job.sender.getId()))
+                .count();
+        if (active >= maxActiveJobsPerUser) {
+            throw new PaymentRejectedException("You already have " + active
+                    + " payouts in progress. Wait for one to finish before starting another.");
+        }
+        if (!itemSlots.tryAcquire(job.items.size())) {
+            throw new PaymentRejectedException("Payouts are busy right now. Please try again in a few minutes.");
+        }
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    // Only fails if the pool is shutting down; the item then fails inside the
+    // job instead of aborting the items already scheduled
+    private CompletableFuture<Void> schedule(PayoutJob job, PayoutItem item) {
+        try {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    process(job, item);
+                } finally {
+                    itemSlots.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            itemSlots.release();
+            logger.warn("Payout job {} item {} could not be scheduled", job.id, item.index);
+            update(job, item, "FAILED", null, "Payout could not be started. Please try again.");
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public PayoutJobDto getJob(User user, String jobId) {
+        PayoutJob job = jobs.get(jobId);
+        if (job == null || !job.sender.getId().equals(user.getId())) {
+            return null;
+        }
+        return job.toDto();
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(1, ChronoUnit.HOURS);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private PayoutItem resolve(User sender, int index, PayoutItemRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new PaymentRejectedException("Recipient " + (index + 1) + ": amount must be positive.");
+        }
+
+        String name = request.getRecipientName();
+        String accountNumber = request.getAccountNumber();
+        String ifsc = request.getIfsc();
+        if (request.getBeneficiaryId() != null) {
+            Beneficiary beneficiary = beneficiaryRepository.findById(request.getBeneficiaryId())
+                    .filter(b -> b.getUser().getId().equals(sender.getId()))
+                    .orElseThrow(() -> new PaymentRejectedException(
+                            "Recipient " + (index + 1) + ": beneficiary not found."));
+            name = beneficiary.getName();
+            accountNumber = beneficiary.getAccountNumber();
+            ifsc = beneficiary.getIfscCode();
+        }
+        if (name == null || accountNumber == null || ifsc == null) {
+            throw new PaymentRejectedException("Recipient " + (index + 1) + ": name, account number and IFSC are required.");
+        }
+
+        String description = request.getDescription() != null ? request.getDescription() : "Payout";
+        return new PayoutItem(index, name, accountNumber, ifsc, request.getAmount(), description);
+    }
+
+    private void process(PayoutJob job, PayoutItem item) {
+        try {
+            update(job, item, "PROCESSING", null, null);
+
+            Transaction transaction = paymentService.payExternalAccount(job.sender, job.sourceAccount,
+                    item.recipientName, item.accountNumber, item.amount, item.description);
+            update(job, item, "SUCCESS", transaction.getId(), null);
+        } catch (TransferPendingException e) {
+            logger.warn("Payout job {} item {} awaits bank confirmation", job.id, item.index);
+            update(job, item, "PENDING", e.getTransactionId(), e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Payout job {} item {} failed: {}", job.id, item.index, e.getMessage());
+            update(job, item, "FAILED", null, e.getMessage());
+        }
+    }
+
+    private void update(PayoutJob job, PayoutItem item, String status, Long transactionId, String message) {
+        item.status = status;
+        item.transactionId = transactionId;
+        item.message = message;
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(job.sender.getId()), "/queue/payouts",
+                    item.toDto(job.id));
+        } catch (Exception e) {
+            logger.debug("Could not push payout update for job {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    private static final class PayoutJob {
+        private final String id;
+        private final User sender;
+        private final BankAccount sourceAccount;
+        private final List<PayoutItem> items;
+        private final Instant createdAt = Instant.now();
+        private volatile Instant finishedAt;
+
+        private PayoutJob(String id, User sender, BankAccount sourceAccount, List<PayoutItem> items) {
+            this.id = id;
+            this.sender = sender;
+            this.sourceAccount = sourceAccount;
+            this.items = items;
+        }
+
+        private PayoutJobDto toDto() {
+            List<PayoutItemDto> itemDtos = new ArrayList<>(items.size());
+            int succeeded = 0;
+            int failed = 0;
+            for (PayoutItem item : items) {
+                PayoutItemDto dto = item.toDto(id);
+                if ("SUCCESS".equals(dto.getStatus())) {
+                    succeeded++;
+                } else if ("FAILED".equals(dto.getStatus())) {
+                    failed++;
+                }
+                itemDtos.add(dto);
+            }
+            return new PayoutJobDto(id, finishedAt != null ? "COMPLETED" : "RUNNING", createdAt, succeeded, failed,
+                    itemDtos);
+        }
+    }
+
+    private static final class PayoutItem {
+        private final int index;
+        private final String recipientName;
+        private final String accountNumber;
+        private final String ifsc;
+        private final BigDecimal amount;
+        private final String description;
+
+        private volatile String status = "QUEUED";
+        private volatile Long transactionId;
+        private volatile String message;
+
+        private PayoutItem(int index, String recipientName, String accountNumber, String ifsc, BigDecimal amount,
+                String description) {
+            this.index = index;
+            this.recipientName = recipientName;
+            this.accountNumber = accountNumber;
+            this.ifsc = ifsc;
+            this.amount = amount;
+            this.description = description;
+        }
+
+        // status, transactionId and message are written together by one thread;
+        // a concurrent reader may briefly see a mix, which polling tolerates
+        private PayoutItemDto toDto(String jobId) {
+            return new PayoutItemDto(jobId, index, recipientName, amount, status, transactionId, message);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.m4hub.backend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.m4hub.backend.event.UserRegisteredEvent;
+import com.m4hub.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registration counts by source without loading users.
+ * Totals are seeded from a grouped COUNT, kept current by registration events
+ * and re-seeded periodically to correct any drift. Per-day breakdowns are
+ * served from a short-lived cache.
+ */
+@Service
+public class RegistrationMetricsService {
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationMetricsService.class);
+
+    private static final String WEB = "web";
+    private static final String MOBILE = "mobile";
+    private static final String UNKNOWN = "unknown";
+    private static final String OTHER = "other";
+
+    private final UserRepository userRepository;
+
+    // null until the first seed
+    private volatile Map<String, AtomicLong> totals;
+    // A lock rather than synchronized: the query would pin a virtual thread's carrier
+    private final ReentrantLock reseedLock = new ReentrantLock();
+
+    private final Cache<Integer, List<Map<String, Object>>> breakdownCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(60, TimeUnit.SECONDS)
+            .maximumSize(16)
+            .build();
+
+    public RegistrationMetricsService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Map<String, Long> getTotals() {
+        Map<String, AtomicLong> current = totals;
+        if (current == null) {
+            current = reseed();
+        }
+
+        // Fixed keys; any other source the clients send is counted under "other"
+        Map<String, Long> stats = new HashMap<>();
+        stats.put(WEB, 0L);
+        stats.put(MOBILE, 0L);
+        stats.put(UNKNOWN, 0L);
+        stats.put(OTHER, 0L);
+        current.forEach((source, count) -> {
+            String key = WEB.equals(source) || MOBILE.equals(source) || UNKNOWN.equals(source) ? source : OTHER;
+            stats.merge(key, count.get(), Long::sum);
+        });
+        return stats;
+    }
+
+    /**
+     * Registrations per day and source for the last {@code days} days
+     */
+    public List<Map<String, Object>> getDailyBreakdown(int days) {
+        int window = Math.max(1, Math.min(days, 365));
+        try {
+            return breakdownCache.get(window, () -> loadDailyBreakdown(window));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to load registration breakdown", e.getCause());
+        }
+    }
+
+    @Scheduled(fixedDelay = 900000) // 15 minutes
+    public Map<String, AtomicLong> reseed() {
+        reseedLock.lock();
+        try {
+            Map<String, AtomicLong> seeded = new ConcurrentHashMap<>();
+            for (Object[] row : userRepository.countByRegistrationSource()) {
+                String source = row[0] != null ? row[0].toString() : UNKNOWN;
+                seeded.computeIfAbsent(source, k -> new AtomicLong()).addAndGet(((Number) row[1]).longValue());
+            }
+            totals = seeded;
+            logger.debug("Registration totals re-seeded: {}", seeded);
+            return seeded;
+        } finally {
+            reseedLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        Map<String, AtomicLong> current = totals;
+        if (current == null) {
+            // The first seed will count this user
+            return;
+        }
+        String source = event.getRegistrationSource() != null ? event.getRegistrationSource() : UNKNOWN;
+        if (!event.isNewUser()) {
+            // Source backfilled on an existing user: move it out of "unknown"
+            current.computeIfAbsent(UNKNOWN, k -> new AtomicLong()).decrementAndGet();
+        }
+        current.computeIfAbsent(source, k -> new AtomicLong()).incrementAndGet();
+        breakdownCache.invalidateAll();
+    }
+
+    private List<Map<String, Object>> loadDailyBreakdown(int days) {
+        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : userRepository.countRegistrationsByDayAndSource(since)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", row[0].toString());
+            entry.put("source", row[1]);
+            entry.put("count", ((Number) row[2]).longValue());
+            result.add(entry);
+        }
+        return result;
+    }
+}
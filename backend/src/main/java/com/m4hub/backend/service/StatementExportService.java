@@ -0,0 +1,150 @@
+package com.m4hub.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m4hub.backend.dto.TransactionFilter;
+import com.m4hub.backend.dto.TransactionSummaryDto;
+import com.m4hub.backend.model.User;
+import com.m4hub.backend.repository.TransactionHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes a user's payment statement straight from a database cursor to the
+ * response stream, so memory use does not grow with the statement's length.
+ * An export holds a connection for the whole download, so at most
+ * {@code payments.statement.max-concurrent-exports} run at once; callers take
+ * a slot with {@link #tryAcquireSlot()} and release it however the request
+ * ends, including when the export never started.
+ */
+@Service
+public class StatementExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "id,timestamp,direction,amount,status,counterparty,description\n";
+
+    private final TransactionHistoryRepository transactionHistoryRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Semaphore exportSlots;
+
+    public StatementExportService(TransactionHistoryRepository transactionHistoryRepository,
+            ObjectMapper objectMapper,
+            @Value("${payments.statement.max-concurrent-exports:2}") int maxConcurrentExports) {
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.objectMapper = objectMapper;
+        this.exportSlots = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * @return a slot to release once the request is over, or null if too many
+     *         exports are running
+     */
+    public Slot tryAcquireSlot() {
+        return exportSlots.tryAcquire() ? new Slot() : null;
+    }
+
+    /**
+     * A held export slot. Release may be called from every path that can end
+     * the request; only the first call returns the permit.
+     */
+    public final class Slot {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot() {
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                exportSlots.release();
+            }
+        }
+    }
+
+    // Read-only transaction so the driver streams from a server-side cursor
+    @Transactional(readOnly = true)
+    public void export(User user, TransactionFilter filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        try {
+            transactionHistoryRepository.streamAll(user.getId(), filter, row -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away; the cursor is closed as the exception unwinds
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, TransactionSummaryDto row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(row.getTimestamp().toString());
+        writer.write(',');
+        writer.write(row.getDirection());
+        writer.write(',');
+        writer.write(row.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(csv(row.getStatus()));
+        writer.write(',');
+        writer.write(csv(row.getCounterpartyName()));
+        writer.write(',');
+        writer.write(csv(row.getDescription()));
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Leading =, +, - or @ would be evaluated as a formula by spreadsheet apps
+        String safe = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.indexOf(',') >= 0 || safe.indexOf('"') >= 0 || safe.indexOf('\n') >= 0
+                || safe.indexOf('\r') >= 0) {
+            return '"' + safe.replace("\"", "\"\"") + '"';
+        }
+        return safe;
+    }
+}
@@ -0,0 +1,191 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.dto.TabUsageEvent;
+import com.m4hub.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers tab usage pings in a bounded lock-free queue and writes them in
+ * periodic JDBC batches, so /api/analytics/log never waits on the database.
+ *
+ * Overload policy: below the sampling threshold every event is kept; between
+ * the threshold and capacity only one in {@code sample-rate} events is kept;
+ * at capacity new events are dropped.
+ *
+ * A batch the database rejects (e.g. for a user deleted since the event was
+ * queued) is not lost whole: events of missing users are discarded and the
+ * rest written, falling back to one event at a time. A batch that fails for
+ * any other reason goes back on the queue for the next flush.
+ */
+@Service
+public class TabUsageIngestionService {
+    private static final Logger logger = LoggerFactory.getLogger(TabUsageIngestionService.class);
+
+    private final TabUsageRollupService tabUsageRollupService;
+    private final UserRepository userRepository;
+
+    private final Queue<TabUsageEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    @Value("${analytics.ingest.queue-capacity:10000}")
+    private int capacity;
+
+    @Value("${analytics.ingest.sample-threshold:0.8}")
+    private double sampleThreshold;
+
+    @Value("${analytics.ingest.sample-rate:4}")
+    private int sampleRate;
+
+    @Value("${analytics.ingest.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    public TabUsageIngestionService(TabUsageRollupService tabUsageRollupService,
+            UserRepository userRepository) {
+        this.tabUsageRollupService = tabUsageRollupService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Queue an event for the next flush
+     *
+     * @return true if the event was queued, false if it was sampled out or dropped
+     */
+    public boolean offer(TabUsageEvent event) {
+        int depth = queued.get();
+        if (depth >= capacity) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (depth >= capacity * sampleThreshold && sampleCounter.incrementAndGet() % sampleRate != 0) {
+            sampledOut.incrementAndGet();
+            return false;
+        }
+        // Reserve a slot; concurrent producers may race past the check above
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.ingest.flush-interval-ms:2000}")
+    public void flush() {
+        List<TabUsageEvent> batch;
+        while (!(batch = drain()).isEmpty()) {
+            try {
+                tabUsageRollupService.recordAll(batch);
+                written.addAndGet(batch.size());
+            } catch (DataIntegrityViolationException e) {
+                writeValidEvents(batch);
+            } catch (Exception e) {
+                logger.error("Failed to write {} tab usage events, retrying next flush: {}", batch.size(),
+                        e.getMessage());
+                requeue(batch);
+                return;
+            }
+        }
+
+        long droppedNow = dropped.getAndSet(0) + sampledOut.getAndSet(0);
+        if (droppedNow > 0) {
+            logger.warn("Tab usage ingestion under load: {} events dropped or sampled out since last flush",
+                    droppedNow);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Flushing {} queued tab usage events before shutdown", queued.get());
+        flush();
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+                "queued", (long) queued.get(),
+                "accepted", accepted.get(),
+                "written", written.get());
+    }
+
+    // Only reached when a batch violated a constraint, so the extra queries
+    // are paid for bad batches alone
+    private void writeValidEvents(List<TabUsageEvent> batch) {
+        Set<Long> userIds = new HashSet<>();
+        for (TabUsageEvent event : batch) {
+            userIds.add(event.getUserId());
+        }
+        Set<Long> existing = userRepository.findExistingIds(userIds);
+        List<TabUsageEvent> valid = batch.stream().filter(event -> existing.contains(event.getUserId())).toList();
+        if (valid.size() < batch.size()) {
+            logger.warn("Discarding {} tab usage events of deleted users", batch.size() - valid.size());
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            tabUsageRollupService.recordAll(valid);
+            written.addAndGet(valid.size());
+            return;
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Tab usage batch still rejected, writing {} events one at a time", valid.size());
+        }
+
+        int rejected = 0;
+        for (TabUsageEvent event : valid) {
+            try {
+                tabUsageRollupService.recordAll(List.of(event));
+                written.incrementAndGet();
+            } catch (DataIntegrityViolationException e) {
+                rejected++;
+            }
+        }
+        if (rejected > 0) {
+            logger.warn("Discarded {} tab usage events rejected by the database", rejected);
+        }
+    }
+
+    private void requeue(List<TabUsageEvent> batch) {
+        for (TabUsageEvent event : batch) {
+            if (queued.incrementAndGet() > capacity) {
+                queued.decrementAndGet();
+                dropped.incrementAndGet();
+            } else {
+                queue.offer(event);
+            }
+        }
+    }
+
+    private List<TabUsageEvent> drain() {
+        List<TabUsageEvent> batch = new ArrayList<>();
+        TabUsageEvent event;
+        while (batch.size() < maxBatchSize && (event = queue.poll()) != null) {
+            batch.add(event);
+        }
+        queued.addAndGet(-batch.size());
+        return batch;
+    }
+}
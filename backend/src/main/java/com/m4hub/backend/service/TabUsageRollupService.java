@@ -0,0 +1,193 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.dto.TabUsageEvent;
+import com.m4hub.backend.model.TabUsage;
+import com.m4hub.backend.model.TabUsageDaily;
+import com.m4hub.backend.model.User;
+import com.m4hub.backend.repository.TabUsageDailyRepository;
+import com.m4hub.backend.repository.TabUsageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the tab_usage_daily rollup that backs hub analytics.
+ * Every tracked usage is added to its (user, day, tab) bucket as it is written;
+ * a nightly job re-derives the most recent closed days from the raw rows and
+ * trims buckets that fall outside the longest analytics window. Today is never
+ * rebuilt, so the job cannot overwrite buckets that live writes are still
+ * incrementing. Days are calendar days in {@code analytics.rollup.zone}, the
+ * same zone the V5 backfill used.
+ */
+@Service
+public class TabUsageRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(TabUsageRollupService.class);
+
+    // "yearly" compares the last 365 days with the 365 before that
+    public static final int ROLLUP_RETENTION_DAYS = 730;
+
+    private static final int RECONCILE_DAYS = 2;
+
+    private static final String INSERT_USAGE_SQL = "INSERT INTO tab_usage (user_id, tab_name, duration_seconds, timestamp) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private static final String UPSERT_ROLLUP_SQL = "INSERT INTO tab_usage_daily "
+            + "(user_id, usage_date, tab_name, total_seconds, session_count) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (user_id, usage_date, tab_name) DO UPDATE SET "
+            + "total_seconds = tab_usage_daily.total_seconds + EXCLUDED.total_seconds, "
+            + "session_count = tab_usage_daily.session_count + EXCLUDED.session_count";
+
+    private final TabUsageRepository tabUsageRepository;
+    private final TabUsageDailyRepository tabUsageDailyRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ZoneId zone;
+
+    @Value("${analytics.rollup.raw-retention-days:0}")
+    private int rawRetentionDays;
+
+    public TabUsageRollupService(TabUsageRepository tabUsageRepository,
+            TabUsageDailyRepository tabUsageDailyRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${analytics.rollup.zone:UTC}") String zone) {
+        this.tabUsageRepository = tabUsageRepository;
+        this.tabUsageDailyRepository = tabUsageDailyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.zone = ZoneId.of(zone);
+    }
+
+    /**
+     * The current rollup day
+     */
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    /**
+     * Record a usage row and fold it into the daily rollup
+     */
+    @Transactional
+    public TabUsage record(User user, String tabName, long durationSeconds) {
+        TabUsage usage = tabUsageRepository.save(new TabUsage(user, tabName, durationSeconds));
+        LocalDate day = usage.getTimestamp().atZone(zone).toLocalDate();
+        tabUsageDailyRepository.addUsage(user.getId(), day, tabName, durationSeconds);
+        return usage;
+    }
+
+    /**
+     * Write a batch of queued events: one JDBC batch for the raw rows and one for
+     * the rollup, with events pre-aggregated per (user, day, tab)
+     */
+    @Transactional
+    public void recordAll(List<TabUsageEvent> events) {
+        List<Object[]> usageRows = new ArrayList<>(events.size());
+        Map<RollupKey, long[]> buckets = new LinkedHashMap<>();
+
+        for (TabUsageEvent event : events) {
+            usageRows.add(new Object[] { event.getUserId(), event.getTabName(), event.getDurationSeconds(),
+                    Timestamp.from(event.getTimestamp()) });
+
+            LocalDate day = event.getTimestamp().atZone(zone).toLocalDate();
+            long[] bucket = buckets.computeIfAbsent(new RollupKey(event.getUserId(), day, event.getTabName()),
+                    k -> new long[2]);
+            bucket[0] += event.getDurationSeconds();
+            bucket[1]++;
+        }
+
+        List<Object[]> rollupRows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> rollupRows.add(new Object[] { key.userId, java.sql.Date.valueOf(key.day),
+                key.tabName, bucket[0], (int) bucket[1] }));
+
+        jdbcTemplate.batchUpdate(INSERT_USAGE_SQL, usageRows);
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rollupRows);
+    }
+
+    public List<TabUsageDaily> getRollups(User user, LocalDate since) {
+        return tabUsageDailyRepository.findByUserIdAndUsageDateGreaterThanEqual(user.getId(), since);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (tabUsageDailyRepository.count() == 0 && tabUsageRepository.count() > 0) {
+                logger.info("tab_usage_daily is empty. Backfilling from raw tab usage...");
+                // Nothing is incremental yet, so today can be included
+                LocalDate today = today();
+                int rows = rebuild(today.minusDays(ROLLUP_RETENTION_DAYS), today.plusDays(1));
+                logger.info("Tab usage rollup backfill complete. Wrote {} rows.", rows);
+            }
+        } catch (Exception e) {
+            logger.error("Tab usage rollup backfill failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${analytics.rollup.compaction-cron:0 15 3 * * *}")
+    public void compact() {
+        try {
+            LocalDate today = today();
+            int rebuilt = rebuild(today.minusDays(RECONCILE_DAYS), today);
+            int expired = tabUsageDailyRepository.deleteByUsageDateBefore(today.minusDays(ROLLUP_RETENTION_DAYS));
+
+            int purgedRaw = 0;
+            if (rawRetentionDays > 0) {
+                purgedRaw = tabUsageRepository
+                        .deleteByTimestampBefore(Instant.now().minus(rawRetentionDays, ChronoUnit.DAYS));
+            }
+            logger.info("Tab usage rollup compaction: {} buckets reconciled, {} expired, {} raw rows purged",
+                    rebuilt, expired, purgedRaw);
+        } catch (Exception e) {
+            logger.error("Error during tab usage rollup compaction: {}", e.getMessage());
+        }
+    }
+
+    // Rebuilds whole days in [firstDay, endDay) so no day is partially overwritten
+    private int rebuild(LocalDate firstDay, LocalDate endDay) {
+        Instant since = firstDay.atStartOfDay(zone).toInstant();
+        Instant until = endDay.atStartOfDay(zone).toInstant();
+        return tabUsageDailyRepository.rebuildBetween(since, until, zone.getId());
+    }
+
+    private static final class RollupKey {
+        private final Long userId;
+        private final LocalDate day;
+        private final String tabName;
+
+        private RollupKey(Long userId, LocalDate day, String tabName) {
+            this.userId = userId;
+            this.day = day;
+            this.tabName = tabName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof RollupKey))
+                return false;
+            RollupKey other = (RollupKey) o;
+            return userId.equals(other.userId) && day.equals(other.day) && tabName.equals(other.tabName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, day, tabName);
+        }
+    }
+}
@@ -1,13 +1,12 @@
 package com.m4hub.backend.service;
 
-import com.m4hub.backend.model.TabUsage;
+import com.m4hub.backend.model.TabUsageDaily;
 import com.m4hub.backend.model.User;
-import com.m4hub.backend.repository.TabUsageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,31 +14,44 @@ import java.util.Map;
 public class TabUsageService {
 
     @Autowired
-    private TabUsageRepository tabUsageRepository;
+    private TabUsageRollupService tabUsageRollupService;
 
     public void logUsage(User user, String tabName, Long durationSeconds) {
-        TabUsage usage = new TabUsage(user, tabName != null ? tabName.toLowerCase() : "unknown", durationSeconds);
-        tabUsageRepository.save(usage);
+        tabUsageRollupService.record(user, tabName != null ? tabName.toLowerCase() : "unknown", durationSeconds);
     }
 
     public List<Map<String, Object>> getAnalytics(User user, String timeframe) {
-        Instant since;
+        int days;
         switch (timeframe.toLowerCase()) {
             case "daily":
-                since = Instant.now().minus(1, ChronoUnit.DAYS);
+                days = 1;
                 break;
             case "weekly":
-                since = Instant.now().minus(7, ChronoUnit.DAYS);
+                days = 7;
                 break;
             case "monthly":
-                since = Instant.now().minus(30, ChronoUnit.DAYS);
+                days = 30;
                 break;
             case "yearly":
-                since = Instant.now().minus(365, ChronoUnit.DAYS);
+                days = 365;
                 break;
             default:
-                since = Instant.now().minus(7, ChronoUnit.DAYS);
+                days = 7;
         }
-        return tabUsageRepository.aggregateUsageByUserAndTimestampAfter(user, since);
+
+        // Sum the daily rollup per tab instead of aggregating raw rows
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (TabUsageDaily rollup : tabUsageRollupService.getRollups(user, tabUsageRollupService.today().minusDays(days - 1))) {
+            totals.merge(rollup.getTabName(), rollup.getTotalSeconds(), Long::sum);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        totals.forEach((tabName, totalDuration) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("tabName", tabName);
+            row.put("totalDuration", totalDuration);
+            result.add(row);
+        });
+        return result;
     }
 }
@@ -0,0 +1,192 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.component.BankingGateway;
+import com.m4hub.backend.exception.PaymentRejectedException;
+import com.m4hub.backend.model.Transaction;
+import com.m4hub.backend.model.User;
+import com.m4hub.backend.repository.BankAccountRepository;
+import com.m4hub.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Short database steps of a transfer; balances move through {@link LedgerService}.
+ * A transfer is reserved (funds held, PENDING row written), the external
+ * gateway is called with no transaction open, and the reservation is then
+ * settled (SUCCESS, receiver credited) or released (FAILED, funds returned).
+ * When the gateway gives no definite answer the transfer stays PENDING until
+ * the sweep has asked the bank what became of it.
+ */
+@Service
+public class TransferSettlementService {
+    private static final Logger logger = LoggerFactory.getLogger(TransferSettlementService.class);
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final BankingGateway bankingGateway;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payments.transfer.pending-timeout-seconds:300}")
+    private long pendingTimeoutSeconds;
+
+    public TransferSettlementService(BankAccountRepository bankAccountRepository,
+            TransactionRepository transactionRepository, LedgerService ledgerService,
+            BankingGateway bankingGateway, PlatformTransactionManager transactionManager) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.bankingGateway = bankingGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The reference a transfer is sent to the bank under, and looked up by.
+     */
+    public static String gatewayReference(Long transactionId) {
+        return "M4H-" + transactionId;
+    }
+
+    /**
+     * Hold {@code amount} on the source account and record a PENDING transfer.
+     *
+     * @param receiver             null for transfers to external accounts
+     * @param destinationAccountId null for transfers to external accounts
+     */
+    @Transactional
+    public Transaction reserve(User sender, Long sourceAccountId, User receiver, Long destinationAccountId,
+            BigDecimal amount, String description) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new PaymentRejectedException("Transfer amount must be positive.");
+        }
+        bankAccountRepository.findById(sourceAccountId)
+                .filter(acc -> acc.getUser().getId().equals(sender.getId()))
+                .orElseThrow(() -> new PaymentRejectedException("Source bank account not found or unauthorized."));
+
+        Transaction transaction = new Transaction();
+        transaction.setSender(sender);
+        transaction.setReceiver(receiver);
+        transaction.setSourceAccountId(sourceAccountId);
+        transaction.setDestinationAccountId(destinationAccountId);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setStatus(STATUS_PENDING);
+        transaction.setTimestamp(Instant.now());
+        transaction = transactionRepository.save(transaction);
+
+        // Rolls the PENDING row back with it when the hold fails
+        if (!ledgerService.debit(sourceAccountId, amount, transaction.getId())) {
+            throw new PaymentRejectedException("Insufficient funds in your account.");
+        }
+        return transaction;
+    }
+
+    /**
+     * The gateway executed the transfer: credit the receiving account (if it is
+     * one of ours) and mark the transfer SUCCESS.
+     */
+    @Transactional
+    public Transaction settle(Long transactionId, String externalRefId) {
+        return doSettle(lockPending(transactionId), externalRefId);
+    }
+
+    /**
+     * The gateway did not execute the transfer: return the held funds and mark
+     * the transfer FAILED.
+     */
+    @Transactional
+    public Transaction release(Long transactionId, String reason) {
+        return doRelease(lockPending(transactionId), reason);
+    }
+
+    /**
+     * Reconciles reservations whose gateway call never gave a definite answer
+     * (timeout, outage, or the node died mid-transfer). The bank is asked for
+     * each one: executed transfers are settled, unknown ones released. When
+     * the bank cannot be asked, the transfer stays PENDING for the next sweep.
+     * The gateway is called with no transaction open.
+     */
+    @Scheduled(fixedDelayString = "${payments.transfer.pending-sweep-ms:60000}")
+    public void releaseStaleReservations() {
+        Instant cutoff = Instant.now().minusSeconds(pendingTimeoutSeconds);
+        List<Transaction> stale = transactionRepository
+                .findTop100ByStatusAndTimestampBeforeOrderByTimestampAsc(STATUS_PENDING, cutoff);
+        int unresolved = 0;
+        for (Transaction candidate : stale) {
+            String externalRefId;
+            try {
+                externalRefId = bankingGateway.findTransfer(gatewayReference(candidate.getId()));
+            } catch (RuntimeException e) {
+                logger.warn("Could not query bank for pending transfer {}: {}", candidate.getId(), e.getMessage());
+                unresolved++;
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> transactionRepository
+                    .findByIdForUpdate(candidate.getId())
+                    .filter(t -> STATUS_PENDING.equals(t.getStatus()))
+                    .ifPresent(t -> {
+                        if (externalRefId != null) {
+                            doSettle(t, externalRefId);
+                        } else {
+                            doRelease(t, "Not executed by bank");
+                        }
+                    }));
+        }
+        if (!stale.isEmpty()) {
+            logger.warn("Reconciled {} stale pending transfers, {} still unresolved", stale.size() - unresolved,
+                    unresolved);
+        }
+    }
+
+    private Transaction doSettle(Transaction transaction, String externalRefId) {
+        Long transactionId = transaction.getId();
+        if (transaction.getDestinationAccountId() != null) {
+            if (bankAccountRepository.existsById(transaction.getDestinationAccountId())) {
+                ledgerService.credit(transaction.getDestinationAccountId(), transaction.getAmount(), transactionId,
+                        LedgerService.ENTRY_CREDIT);
+            } else {
+                logger.warn("Destination account {} of transfer {} no longer exists",
+                        transaction.getDestinationAccountId(), transactionId);
+            }
+        }
+
+        transaction.setExternalRef(externalRefId);
+        transaction.setDescription(transaction.getDescription() + " (Ref: " + externalRefId + ")");
+        transaction.setStatus(STATUS_SUCCESS);
+        return transactionRepository.save(transaction);
+    }
+
+    private Transaction lockPending(Long transactionId) {
+        Transaction transaction = transactionRepository.findByIdForUpdate(transactionId)
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        if (!STATUS_PENDING.equals(transaction.getStatus())) {
+            throw new RuntimeException("Transaction is already " + transaction.getStatus());
+        }
+        return transaction;
+    }
+
+    private Transaction doRelease(Transaction transaction, String reason) {
+        if (bankAccountRepository.existsById(transaction.getSourceAccountId())) {
+            ledgerService.credit(transaction.getSourceAccountId(), transaction.getAmount(), transaction.getId(),
+                    LedgerService.ENTRY_REVERSAL);
+        }
+
+        logger.info("Released transfer {}: {}", transaction.getId(), reason);
+        transaction.setStatus(STATUS_FAILED);
+        return transactionRepository.save(transaction);
+    }
+}
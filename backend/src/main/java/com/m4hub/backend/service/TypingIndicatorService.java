@@ -0,0 +1,231 @@
+package com.m4hub.backend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.m4hub.backend.component.ChatWorkLanes;
+import com.m4hub.backend.event.GroupMembershipChangedEvent;
+import com.m4hub.backend.repository.GroupChatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typing indicators, coalesced per (sender, chat).
+ * Clients report typing on every keystroke; only changes between "typing" and
+ * "stopped" go out, at most one per {@code chat.typing.min-interval-ms} for a
+ * chat. A change inside that window is sent when the window closes, if it
+ * still holds. A sender who goes quiet for {@code chat.typing.timeout-ms} is
+ * reported as stopped, so a lost "stopped" frame cannot leave the indicator on.
+ * Indicators go to each recipient's /user/queue/typing.
+ * Group member lists are cached and dropped whenever membership changes; a
+ * miss is loaded on the group's ChatWorkLanes lane, never on the inbound
+ * thread that received the frame.
+ */
+@Service
+public class TypingIndicatorService {
+    private static final Logger logger = LoggerFactory.getLogger(TypingIndicatorService.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GroupChatRepository groupChatRepository;
+    private final ChatWorkLanes chatWorkLanes;
+    private final long minIntervalNanos;
+    private final long timeoutNanos;
+
+    private final Map<Key, State> states = new ConcurrentHashMap<>();
+    private final Cache<Long, List<Long>> groupMembers = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .maximumSize(10000)
+            .build();
+
+    public TypingIndicatorService(SimpMessagingTemplate messagingTemplate, GroupChatRepository groupChatRepository,
+            ChatWorkLanes chatWorkLanes,
+            @Value("${chat.typing.min-interval-ms:1000}") long minIntervalMs,
+            @Value("${chat.typing.timeout-ms:5000}") long timeoutMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.groupChatRepository = groupChatRepository;
+        this.chatWorkLanes = chatWorkLanes;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMs);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    public void userTyping(Long senderId, Long receiverId, boolean typing) {
+        update(new Key(senderId, receiverId, false), typing);
+    }
+
+    public void groupTyping(Long senderId, Long groupId, boolean typing) {
+        List<Long> members = groupMembers.getIfPresent(groupId);
+        if (members == null) {
+            // Typing is best effort: if the lane is busy the frame is dropped
+            if (!chatWorkLanes.trySubmit(groupId, () -> {
+                try {
+                    groupTyping(senderId, groupId, typing, groupMemberIds(groupId));
+                } catch (Exception e) {
+                    logger.error("Error handling group typing indicator", e);
+                }
+            })) {
+                logger.debug("Dropping typing from user {} in group {}: lane is full", senderId, groupId);
+            }
+            return;
+        }
+        groupTyping(senderId, groupId, typing, members);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGroupMembershipChanged(GroupMembershipChangedEvent event) {
+        groupMembers.invalidate(event.getGroupId());
+    }
+
+    private void groupTyping(Long senderId, Long groupId, boolean typing, List<Long> members) {
+        if (!members.contains(senderId)) {
+            logger.debug("Ignoring typing from user {} who is not in group {}", senderId, groupId);
+            return;
+        }
+        update(new Key(senderId, groupId, true), typing);
+    }
+
+    /**
+     * Sends changes held back by the interval, expires silent typists and
+     * forgets settled chats.
+     */
+    @Scheduled(fixedDelayString = "${chat.typing.sweep-interval-ms:500}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Key key : states.keySet()) {
+            Boolean[] emit = new Boolean[1];
+            states.computeIfPresent(key, (k, state) -> {
+                if (state.desired && now - state.lastActivity >= timeoutNanos) {
+                    state.desired = false;
+                }
+                emit[0] = state.advance(now, minIntervalNanos);
+                return state.settled(now, minIntervalNanos) ? null : state;
+            });
+            if (emit[0] != null) {
+                publish(key, emit[0]);
+            }
+        }
+    }
+
+    private void update(Key key, boolean typing) {
+        long now = System.nanoTime();
+        Boolean[] emit = new Boolean[1];
+        states.compute(key, (k, state) -> {
+            if (state == null) {
+                if (!typing) {
+                    return null;
+                }
+                state = new State(now - minIntervalNanos);
+            }
+            state.desired = typing;
+            if (typing) {
+                state.lastActivity = now;
+            }
+            emit[0] = state.advance(now, minIntervalNanos);
+            return state;
+        });
+        // Sent outside compute so the map lock is never held across the broker
+        if (emit[0] != null) {
+            publish(key, emit[0]);
+        }
+    }
+
+    private void publish(Key key, boolean typing) {
+        try {
+            if (!key.group) {
+                messagingTemplate.convertAndSendToUser(String.valueOf(key.targetId), "/queue/typing", Map.of(
+                        "userId", key.senderId,
+                        "isTyping", typing));
+                return;
+            }
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("userId", key.senderId);
+            payload.put("groupId", key.targetId);
+            payload.put("isTyping", typing);
+            for (Long memberId : groupMemberIds(key.targetId)) {
+                if (!memberId.equals(key.senderId)) {
+                    messagingTemplate.convertAndSendToUser(String.valueOf(memberId), "/queue/typing", payload);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Could not send typing indicator: {}", e.getMessage());
+        }
+    }
+
+    private List<Long> groupMemberIds(Long groupId) {
+        try {
+            return groupMembers.get(groupId, () -> groupChatRepository.findMemberIds(groupId));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to load group members", e.getCause());
+        }
+    }
+
+    private static final class Key {
+        private final Long senderId;
+        private final Long targetId;
+        private final boolean group;
+
+        private Key(Long senderId, Long targetId, boolean group) {
+            this.senderId = senderId;
+            this.targetId = targetId;
+            this.group = group;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return group == other.group && senderId.equals(other.senderId) && targetId.equals(other.targetId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(senderId, targetId, group);
+        }
+    }
+
+    // Only touched inside ConcurrentHashMap.compute, which serializes access per key
+    private static final class State {
+        private boolean desired;
+        private boolean emitted;
+        private long lastEmit;
+        private long lastActivity;
+
+        private State(long lastEmit) {
+            this.lastEmit = lastEmit;
+        }
+
+        /**
+         * The state to send now, or null when nothing changed or the interval
+         * has not passed yet.
+         */
+        private Boolean advance(long now, long minIntervalNanos) {
+            if (desired == emitted || now - lastEmit < minIntervalNanos) {
+                return null;
+            }
+            emitted = desired;
+            lastEmit = now;
+            return emitted;
+        }
+
+        // Stopped, announced as stopped, and past the interval: nothing left to track
+        private boolean settled(long now, long minIntervalNanos) {
+            return !desired && !emitted && now - lastEmit >= minIntervalNanos;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.m4hub.backend.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size pools that report their queue depth and task latency:
+ * {@code executor.queued} and {@code executor.active} gauges, plus how long
+ * each task waited in the queue ({@code executor.task.wait}) and ran
+ * ({@code executor.task.run}), all tagged {@code name=<name>}.
+ * Pools are returned uninitialized so they can be handed to a framework that
+ * manages their lifecycle; gauges read the live pool whenever it exists.
+ */
+public final class InstrumentedExecutors {
+
+    private InstrumentedExecutors() {
+    }
+
+    public static ThreadPoolTaskExecutor fixed(String name, int threads, int queueCapacity,
+            RejectedExecutionHandler rejectedHandler, MeterRegistry meterRegistry) {
+        Timer waitTimer = Timer.builder("executor.task.wait").tag("name", name).register(meterRegistry);
+        Timer runTimer = Timer.builder("executor.task.run").tag("name", name).register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("M4Hub-" + name + "-");
+        if (rejectedHandler != null) {
+            executor.setRejectedExecutionHandler(rejectedHandler);
+        }
+        // Decorated on the submitting thread, so the start time is the enqueue time
+        executor.setTaskDecorator(task -> {
+            long enqueued = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - enqueued, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+
+        Gauge.builder("executor.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("name", name)
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,14 @@
+-- News articles are keyed on the SHA-256 hex of their link instead of
+-- String.hashCode(), and expired rows are purged by published_at
+
+-- Keep one row per link so the new keys stay unique
+DELETE FROM news_articles a
+USING news_articles b
+WHERE a.url = b.url AND a.id > b.id;
+
+UPDATE news_articles
+SET external_id = encode(sha256(convert_to(url, 'UTF8')), 'hex')
+WHERE url IS NOT NULL AND external_id NOT LIKE '%mock%';
+
+CREATE INDEX IF NOT EXISTS idx_news_articles_published_at
+    ON news_articles(published_at);
@@ -0,0 +1,10 @@
+-- Keyset pagination of the news feed, overall and per category
+
+CREATE INDEX IF NOT EXISTS idx_news_articles_published_at_id
+    ON news_articles(published_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_news_articles_category_published_at_id
+    ON news_articles(category, published_at, id);
+
+-- Superseded by idx_news_articles_published_at_id
+DROP INDEX IF EXISTS idx_news_articles_published_at;
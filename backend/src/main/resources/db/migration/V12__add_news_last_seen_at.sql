@@ -0,0 +1,10 @@
+-- Expired news is purged by when the feed last listed an article rather than
+-- when it was first stored, so a long-running story is not deleted and then
+-- re-inserted (and pushed again) by the next sync
+
+ALTER TABLE news_articles ADD COLUMN IF NOT EXISTS last_seen_at TIMESTAMP;
+
+UPDATE news_articles SET last_seen_at = published_at WHERE last_seen_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_news_articles_last_seen_at
+    ON news_articles(last_seen_at);
@@ -0,0 +1,4 @@
+-- Bumped by every balance UPDATE, so a bank sync can tell that the balance
+-- moved even when it moved back to the same value
+
+ALTER TABLE bank_accounts ADD COLUMN IF NOT EXISTS balance_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,35 @@
+-- Composite indexes for the hot repository query paths
+-- Each index matches the equality columns first, then the sort/range column
+
+-- ChatMessageRepository.findConversation / findLastMessages
+CREATE INDEX IF NOT EXISTS idx_chat_messages_sender_receiver_created
+    ON chat_messages(sender_id, receiver_id, created_at);
+
+-- ChatMessageRepository.countByReceiverAndIsReadFalse
+CREATE INDEX IF NOT EXISTS idx_chat_messages_receiver_read
+    ON chat_messages(receiver_id, is_read);
+
+-- GroupMessageRepository.findByGroupOrderByCreatedAt{Asc,Desc}
+CREATE INDEX IF NOT EXISTS idx_group_messages_group_created
+    ON group_messages(group_id, created_at);
+
+-- TabUsageRepository.findByUserAndTimestampAfter / aggregateUsageByUserAndTimestampAfter
+CREATE INDEX IF NOT EXISTS idx_tab_usage_user_timestamp
+    ON tab_usage(user_id, timestamp);
+
+-- TransactionRepository.findBy{Sender,Receiver,SenderOrReceiver}OrderByTimestampDesc
+-- (the OR query is served by a BitmapOr over both indexes)
+CREATE INDEX IF NOT EXISTS idx_transactions_sender_timestamp
+    ON transactions(sender_id, timestamp);
+CREATE INDEX IF NOT EXISTS idx_transactions_receiver_timestamp
+    ON transactions(receiver_id, timestamp);
+
+-- FriendRequestRepository.findBy{Receiver,Sender}IdAndStatus
+CREATE INDEX IF NOT EXISTS idx_friend_requests_receiver_status
+    ON friend_requests(receiver_id, status);
+CREATE INDEX IF NOT EXISTS idx_friend_requests_sender_status
+    ON friend_requests(sender_id, status);
+
+-- Note: songs(external_id) is already backed by the unique index Hibernate
+-- creates for Song.externalId, so no extra index is needed for
+-- SongRepository.findByExternalId
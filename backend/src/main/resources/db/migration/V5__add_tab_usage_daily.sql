@@ -0,0 +1,19 @@
+-- Daily per-tab rollup of tab_usage used by hub analytics
+-- Rows are upserted on every tracked usage and reconciled nightly
+
+CREATE TABLE IF NOT EXISTS tab_usage_daily (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    usage_date DATE NOT NULL,
+    tab_name VARCHAR(255) NOT NULL,
+    total_seconds BIGINT NOT NULL,
+    session_count INTEGER NOT NULL,
+    CONSTRAINT uk_tab_usage_daily_user_date_tab UNIQUE (user_id, usage_date, tab_name)
+);
+
+-- Backfill from existing raw rows (UTC days)
+INSERT INTO tab_usage_daily (user_id, usage_date, tab_name, total_seconds, session_count)
+SELECT user_id, CAST(timezone('UTC', timestamp) AS date), LOWER(tab_name), SUM(duration_seconds), COUNT(*)
+FROM tab_usage
+GROUP BY 1, 2, 3
+ON CONFLICT (user_id, usage_date, tab_name) DO NOTHING;
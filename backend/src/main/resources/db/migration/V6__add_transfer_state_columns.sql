@@ -0,0 +1,13 @@
+-- Transfers are reserved as PENDING rows, then settled or released once the
+-- external gateway answers; the rows carry the accounts they move money between
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS source_account_id BIGINT;
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS destination_account_id BIGINT;
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS external_ref VARCHAR(255);
+
+-- Transfers to external accounts have no receiving user
+ALTER TABLE transactions ALTER COLUMN receiver_id DROP NOT NULL;
+
+-- Stale PENDING sweep
+CREATE INDEX IF NOT EXISTS idx_transactions_status_timestamp
+    ON transactions(status, timestamp);
@@ -0,0 +1,23 @@
+-- Append-only ledger of balance movements; bank_accounts.balance is the
+-- running total of an account's entries
+
+CREATE TABLE IF NOT EXISTS ledger_entries (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    transaction_id BIGINT,
+    amount NUMERIC(38, 2) NOT NULL,
+    entry_type VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_account_created
+    ON ledger_entries(account_id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_transaction
+    ON ledger_entries(transaction_id);
+
+-- Open the ledger of every existing account at its current balance
+INSERT INTO ledger_entries (account_id, transaction_id, amount, entry_type, created_at)
+SELECT a.id, NULL, a.balance, 'OPENING', NOW()
+FROM bank_accounts a
+WHERE NOT EXISTS (SELECT 1 FROM ledger_entries e WHERE e.account_id = a.id);
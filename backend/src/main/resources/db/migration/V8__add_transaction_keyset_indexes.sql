@@ -0,0 +1,12 @@
+-- History is paged on (timestamp, id) per party; include id so the keyset
+-- predicate and tie-break are served by the index alone
+
+CREATE INDEX IF NOT EXISTS idx_transactions_sender_timestamp_id
+    ON transactions(sender_id, timestamp, id);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_receiver_timestamp_id
+    ON transactions(receiver_id, timestamp, id);
+
+-- Superseded by the indexes above
+DROP INDEX IF EXISTS idx_transactions_sender_timestamp;
+DROP INDEX IF EXISTS idx_transactions_receiver_timestamp;
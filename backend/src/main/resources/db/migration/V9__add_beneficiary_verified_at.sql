@@ -0,0 +1,4 @@
+-- When the bank last confirmed a beneficiary's account details; external
+-- transfers to a recently verified beneficiary skip re-verification
+
+ALTER TABLE beneficiaries ADD COLUMN IF NOT EXISTS verified_at TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,85 @@
+package com.m4hub.backend.component;
+
+import com.m4hub.backend.exception.BankingGatewayException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BankingGatewayTest {
+
+    private static final long TIMEOUT_MS = 100;
+
+    private final CountDownLatch bankResponds = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BankingGateway gateway = new BankingGateway(new StalledClient(), meterRegistry, 1,
+            TIMEOUT_MS, TIMEOUT_MS, TIMEOUT_MS, TIMEOUT_MS, 5, 30000);
+
+    @AfterEach
+    void tearDown() {
+        bankResponds.countDown();
+        gateway.shutdown();
+    }
+
+    @Test
+    void timedOutCallKeepsItsPermitUntilTheBankReturns() throws Exception {
+        assertThatThrownBy(() -> gateway.executeExternalTransfer("M4H-1", "from", "to", BigDecimal.TEN))
+                .isInstanceOf(BankingGatewayException.class)
+                .hasMessageContaining("did not respond in time")
+                .satisfies(e -> assertThat(((BankingGatewayException) e).isOutcomeKnown()).isFalse());
+
+        // The worker is still inside the client, so the only slot is taken
+        assertThat(availablePermits()).isZero();
+        assertThatThrownBy(() -> gateway.findTransfer("M4H-1"))
+                .isInstanceOf(BankingGatewayException.class)
+                .hasMessageContaining("busy")
+                .satisfies(e -> assertThat(((BankingGatewayException) e).isOutcomeKnown()).isTrue());
+
+        bankResponds.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (availablePermits() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(availablePermits()).isEqualTo(1);
+        assertThat(gateway.findTransfer("M4H-1")).isEqualTo("REF-M4H-1");
+        assertThat(gateway.getCircuitState()).isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+    }
+
+    private double availablePermits() {
+        return meterRegistry.get("banking.gateway.bulkhead.available").gauge().value();
+    }
+
+    private final class StalledClient implements BankingGatewayClient {
+
+        @Override
+        public String transfer(String reference, String fromAccount, String toAccount, BigDecimal amount) {
+            try {
+                bankResponds.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "REF-" + reference;
+        }
+
+        @Override
+        public String findTransfer(String reference) {
+            return "REF-" + reference;
+        }
+
+        @Override
+        public boolean verifyAccount(String accountNumber, String ifscCode, String accountHolderName) {
+            return true;
+        }
+
+        @Override
+        public BigDecimal fetchBalance(String accountNumber) {
+            return BigDecimal.ZERO;
+        }
+    }
+}
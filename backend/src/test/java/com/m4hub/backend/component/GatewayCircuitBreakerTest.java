@@ -0,0 +1,64 @@
+package com.m4hub.backend.component;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayCircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker(THRESHOLD, 60000);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndClosesOnSuccess() {
+        GatewayCircuitBreaker breaker = openedBreaker();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() {
+        GatewayCircuitBreaker breaker = openedBreaker();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+
+        // The open period has already elapsed again, so the next call is a new trial
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.HALF_OPEN);
+    }
+
+    // No open period, so the next tryAcquire moves straight to HALF_OPEN
+    private static GatewayCircuitBreaker openedBreaker() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker(THRESHOLD, 0);
+        for (int i = 0; i < THRESHOLD; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+        return breaker;
+    }
+}
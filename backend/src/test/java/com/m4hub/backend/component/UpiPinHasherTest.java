@@ -0,0 +1,65 @@
+package com.m4hub.backend.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpiPinHasherTest {
+
+    private static final int ITERATIONS = 1000;
+
+    private final UpiPinHasher hasher = new UpiPinHasher(ITERATIONS);
+
+    @Test
+    void hashVerifiesOnlyTheSamePin() {
+        String hash = hasher.hash("1234");
+
+        assertThat(hash).startsWith("pbkdf2$" + ITERATIONS + "$");
+        assertThat(hasher.matches("1234", hash)).isTrue();
+        assertThat(hasher.matches("4321", hash)).isFalse();
+        assertThat(hasher.needsRehash(hash)).isFalse();
+    }
+
+    @Test
+    void hashesAreSalted() {
+        assertThat(hasher.hash("1234")).isNotEqualTo(hasher.hash("1234"));
+    }
+
+    @Test
+    void legacySha256HashVerifiesAndNeedsRehash() throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest("1234".getBytes(StandardCharsets.UTF_8));
+        String legacy = HexFormat.of().formatHex(digest);
+
+        assertThat(hasher.matches("1234", legacy)).isTrue();
+        assertThat(hasher.matches("4321", legacy)).isFalse();
+        assertThat(hasher.needsRehash(legacy)).isTrue();
+
+        String upgraded = hasher.hash("1234");
+        assertThat(hasher.matches("1234", upgraded)).isTrue();
+        assertThat(hasher.needsRehash(upgraded)).isFalse();
+    }
+
+    @Test
+    void lowerIterationCountNeedsRehashButStillVerifies() {
+        String weaker = new UpiPinHasher(ITERATIONS / 2).hash("1234");
+
+        assertThat(hasher.matches("1234", weaker)).isTrue();
+        assertThat(hasher.needsRehash(weaker)).isTrue();
+        assertThat(new UpiPinHasher(ITERATIONS * 2).needsRehash(hasher.hash("1234"))).isTrue();
+    }
+
+    @Test
+    void malformedHashesNeverMatch() {
+        assertThat(hasher.matches("1234", null)).isFalse();
+        assertThat(hasher.matches(null, hasher.hash("1234"))).isFalse();
+        assertThat(hasher.matches("1234", "pbkdf2$oops")).isFalse();
+        assertThat(hasher.matches("1234", "pbkdf2$x$AAAA$AAAA")).isFalse();
+        assertThat(hasher.matches("1234", "not-hex")).isFalse();
+        assertThat(hasher.needsRehash("pbkdf2$x$AAAA$AAAA")).isTrue();
+        assertThat(hasher.needsRehash(null)).isTrue();
+    }
+}
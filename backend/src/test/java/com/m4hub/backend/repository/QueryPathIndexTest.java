@@ -0,0 +1,96 @@
+package com.m4hub.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the composite indexes of V4 (transactions as re-keyed by V8) against
+ * the hot query paths, after applying the migrations over the entity schema.
+ * Runs on H2 with the predicates Hibernate generates for each repository
+ * method. H2 does not combine indexes for an OR, so each side of the
+ * conversation query (a BitmapOr on Postgres) is checked on its own.
+ * H2's planner also ignores ORDER BY when picking an index, so it ties a
+ * composite index with the single-column foreign key index when the only
+ * extra column is the sort key. For those paths the test checks the index
+ * exists with the equality column first and the sort column second.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querypaths;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPathIndexTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void applyMigrations() {
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V4__add_query_path_indexes.sql"),
+                new ClassPathResource("db/migration/V8__add_transaction_keyset_indexes.sql"))
+                .execute(dataSource);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "ChatMessageRepository.findLastMessages, one side of the OR"
+                    + "|SELECT * FROM chat_messages WHERE sender_id = 1 AND receiver_id = 2 ORDER BY created_at DESC"
+                    + "|idx_chat_messages_sender_receiver_created",
+            "ChatMessageRepository.countByReceiverAndIsReadFalse"
+                    + "|SELECT COUNT(*) FROM chat_messages WHERE receiver_id = 1 AND is_read = FALSE"
+                    + "|idx_chat_messages_receiver_read",
+            "TabUsageRepository.findByUserAndTimestampAfter"
+                    + "|SELECT * FROM tab_usage WHERE user_id = 1 AND timestamp >= TIMESTAMP '2026-01-01 00:00:00'"
+                    + " ORDER BY timestamp DESC"
+                    + "|idx_tab_usage_user_timestamp",
+            "FriendRequestRepository.findByReceiverIdAndStatus"
+                    + "|SELECT * FROM friend_requests WHERE receiver_id = 1 AND status = 'PENDING'"
+                    + "|idx_friend_requests_receiver_status",
+            "FriendRequestRepository.findBySenderIdAndStatus"
+                    + "|SELECT * FROM friend_requests WHERE sender_id = 1 AND status = 'PENDING'"
+                    + "|idx_friend_requests_sender_status"
+    })
+    void hotQueryUsesItsIndex(String queryPath, String sql, String index) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertThat(plan).as(queryPath).containsIgnoringCase("." + index + ":");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "GroupMessageRepository.findByGroupOrderByCreatedAt{Asc,Desc}"
+                    + "|group_messages|idx_group_messages_group_created|GROUP_ID,CREATED_AT",
+            "TransactionRepository.findBySenderOrderByTimestampDesc"
+                    + "|transactions|idx_transactions_sender_timestamp_id|SENDER_ID,TIMESTAMP,ID",
+            "TransactionRepository.findByReceiverOrderByTimestampDesc"
+                    + "|transactions|idx_transactions_receiver_timestamp_id|RECEIVER_ID,TIMESTAMP,ID"
+    })
+    void sortedQueryHasItsIndex(String queryPath, String table, String index, String columns) {
+        List<String> indexed = jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS"
+                        + " WHERE TABLE_NAME = ? AND INDEX_NAME = ? ORDER BY ORDINAL_POSITION",
+                String.class, table.toUpperCase(), index.toUpperCase());
+
+        assertThat(indexed).as(queryPath).containsExactly(columns.split(","));
+    }
+}
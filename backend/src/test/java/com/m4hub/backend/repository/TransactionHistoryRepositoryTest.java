@@ -0,0 +1,116 @@
+package com.m4hub.backend.repository;
+
+import com.m4hub.backend.dto.TransactionFilter;
+import com.m4hub.backend.dto.TransactionSummaryDto;
+import com.m4hub.backend.model.Transaction;
+import com.m4hub.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionHistoryRepository.class)
+class TransactionHistoryRepositoryTest {
+
+    @Autowired
+    private TransactionHistoryRepository transactionHistoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User alice;
+    private User bob;
+    private Transaction external;
+    private Transaction internal;
+    private Transaction received;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice");
+        bob = user("bob");
+
+        Instant now = Instant.now();
+        // Described, so a wasNull() read of the description column would say "not null"
+        external = transaction(alice, null, "Rent", now.minusSeconds(30));
+        // Undescribed, so a wasNull() read of the description column would say "null"
+        internal = transaction(alice, bob, null, now.minusSeconds(20));
+        received = transaction(bob, alice, "Refund", now.minusSeconds(10));
+    }
+
+    @Test
+    void pageReportsCounterpartyOnlyForInternalTransfers() {
+        List<TransactionSummaryDto> page = transactionHistoryRepository.findPage(alice.getId(),
+                new TransactionFilter(), null, null, 10);
+
+        assertThat(page).extracting(TransactionSummaryDto::getId)
+                .containsExactly(received.getId(), internal.getId(), external.getId());
+        assertCounterparties(page);
+    }
+
+    @Test
+    void statementReportsCounterpartyOnlyForInternalTransfers() {
+        List<TransactionSummaryDto> rows = new ArrayList<>();
+        transactionHistoryRepository.streamAll(alice.getId(), new TransactionFilter(), rows::add);
+
+        assertThat(rows).extracting(TransactionSummaryDto::getId)
+                .containsExactly(external.getId(), internal.getId(), received.getId());
+        assertCounterparties(rows);
+    }
+
+    private void assertCounterparties(List<TransactionSummaryDto> rows) {
+        Map<Long, TransactionSummaryDto> byId = rows.stream()
+                .collect(Collectors.toMap(TransactionSummaryDto::getId, Function.identity()));
+
+        assertThat(byId.get(external.getId()).getCounterpartyId()).isNull();
+        assertThat(byId.get(external.getId()).getCounterpartyName()).isNull();
+        assertThat(byId.get(external.getId()).getDirection()).isEqualTo("SENT");
+
+        assertThat(byId.get(internal.getId()).getCounterpartyId()).isEqualTo(bob.getId());
+        assertThat(byId.get(internal.getId()).getCounterpartyName()).isEqualTo("bob");
+        assertThat(byId.get(internal.getId()).getDescription()).isNull();
+
+        assertThat(byId.get(received.getId()).getCounterpartyId()).isEqualTo(bob.getId());
+        assertThat(byId.get(received.getId()).getDirection()).isEqualTo("RECEIVED");
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setEmail(name + "@test.local");
+        user.setName(name);
+        return userRepository.save(user);
+    }
+
+    private Transaction transaction(User sender, User receiver, String description, Instant timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setSender(sender);
+        transaction.setReceiver(receiver);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setDescription(description);
+        transaction.setStatus("SUCCESS");
+        transaction.setTimestamp(timestamp);
+        return transactionRepository.saveAndFlush(transaction);
+    }
+}
@@ -0,0 +1,307 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.dto.HubAnalyticsDto;
+import com.m4hub.backend.model.TabUsageDaily;
+import com.m4hub.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the single-pass engine against the per-metric queries it replaced,
+ * on a fixed data set with rows on both sides of every window edge.
+ */
+class HubAnalyticsEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    // Each side of: the daily, weekly, monthly and yearly period edges
+    // (1, 7, 30, 365), the end of each loaded window (7, 14, 60, 730) and the
+    // monthly trend (28)
+    private static final int[] OFFSETS = { 0, 1, 2, 6, 7, 8, 13, 14, 15, 27, 28, 29, 30, 31, 45, 59, 60, 61, 100,
+            200, 334, 364, 365, 366, 500, 729, 730, 731 };
+
+    private static final String[] TABS = { "music", "messages", "money", "news", "explore", "profile", "games",
+            "dashboard" };
+
+    private final User user = new User();
+    private List<TabUsageDaily> rows;
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        rows = new ArrayList<>();
+        for (int i = 0; i < OFFSETS.length; i++) {
+            // A varying subset of tabs per day, some days with several rows
+            for (int t = 0; t < TABS.length; t++) {
+                if ((i + t) % 3 == 0 || t == i % TABS.length) {
+                    rows.add(rollup(OFFSETS[i], TABS[t], 37L * (OFFSETS[i] % 11 + 1) * (t + 2), 1 + (i + t) % 4));
+                }
+            }
+        }
+
+        TabUsageRollupService rollupService = mock(TabUsageRollupService.class);
+        when(rollupService.today()).thenReturn(TODAY);
+        when(rollupService.getRollups(any(), any())).thenAnswer(invocation -> since(invocation.getArgument(1)));
+        analyticsService = new AnalyticsService();
+        ReflectionTestUtils.setField(analyticsService, "tabUsageRollupService", rollupService);
+    }
+
+    @Test
+    void windowCoversBothPeriodsAndTheTrend() {
+        assertThat(HubAnalyticsEngine.windowDays(1, 7)).isEqualTo(7);
+        assertThat(HubAnalyticsEngine.windowDays(7, 7)).isEqualTo(14);
+        assertThat(HubAnalyticsEngine.windowDays(30, 28)).isEqualTo(60);
+        assertThat(HubAnalyticsEngine.windowDays(365, 365)).isEqualTo(730);
+        assertThat(HubAnalyticsEngine.windowDays(3, 28)).isEqualTo(28);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "daily", "weekly", "monthly", "yearly", "unknown" })
+    void matchesTheLegacyComputation(String timeframe) {
+        HubAnalyticsDto actual = analyticsService.getHubAnalytics(user, timeframe);
+        HubAnalyticsDto expected = new LegacyHubAnalytics(this::since, TODAY).getHubAnalytics(timeframe);
+
+        assertThat(actual.getWeeklyActivity()).isEqualTo(expected.getWeeklyActivity());
+        assertThat(actual.getEngagementMetrics()).usingRecursiveComparison()
+                .isEqualTo(expected.getEngagementMetrics());
+        assertThat(byName(actual.getTabAnalytics())).isEqualTo(byName(expected.getTabAnalytics()));
+    }
+
+    @Test
+    void rowsOnTheWindowEdgesLandInTheRightPeriod() {
+        List<TabUsageDaily> data = List.of(
+                rollup(0, "music", 10, 1),
+                rollup(6, "news", 20, 1),
+                rollup(7, "money", 40, 1),
+                rollup(13, "money", 80, 1),
+                rollup(14, "messages", 160, 1),
+                rollup(-1, "music", 320, 1));
+
+        HubAnalyticsEngine weekly = HubAnalyticsEngine.compute(data, TODAY, 7, HubAnalyticsEngine.windowDays(7, 7));
+        assertThat(weekly.getCurrentSeconds()).isEqualTo(30);
+        assertThat(weekly.getPreviousSeconds()).isEqualTo(120);
+        assertThat(weekly.getCurrentFeatureCount()).isEqualTo(2);
+        assertThat(weekly.getPreviousFeatureCount()).isEqualTo(1);
+        assertThat(weekly.getActiveDays()).isEqualTo(2);
+        assertThat(weekly.getSecondsOnDay(13)).isEqualTo(80);
+        assertThat(weekly.getSecondsOnDay(14)).isZero();
+
+        HubAnalyticsEngine daily = HubAnalyticsEngine.compute(data, TODAY, 1, HubAnalyticsEngine.windowDays(1, 7));
+        assertThat(daily.getCurrentSeconds()).isEqualTo(10);
+        assertThat(daily.getPreviousSeconds()).isZero();
+        assertThat(daily.getSecondsOnDay(6)).isEqualTo(20);
+        assertThat(daily.getSecondsOnDay(7)).isZero();
+    }
+
+    private List<TabUsageDaily> since(LocalDate since) {
+        return rows.stream().filter(r -> !r.getUsageDate().isBefore(since)).collect(Collectors.toList());
+    }
+
+    private static TabUsageDaily rollup(int daysAgo, String tab, long seconds, int sessions) {
+        TabUsageDaily rollup = new TabUsageDaily();
+        rollup.setUserId(1L);
+        rollup.setUsageDate(TODAY.minusDays(daysAgo));
+        rollup.setTabName(tab);
+        rollup.setTotalSeconds(seconds);
+        rollup.setSessionCount(sessions);
+        return rollup;
+    }
+
+    // Ties in percentage leave the order of the list unspecified
+    private static Map<String, List<Long>> byName(List<HubAnalyticsDto.TabAnalytics> tabs) {
+        Map<String, List<Long>> byName = new TreeMap<>();
+        for (HubAnalyticsDto.TabAnalytics tab : tabs) {
+            byName.put(tab.getName(), List.of((long) tab.getPercentage(), (long) tab.getSessions(),
+                    tab.getTotalSeconds()));
+        }
+        return byName;
+    }
+
+    /**
+     * AnalyticsService before the single-pass engine: one query per metric,
+     * each over its own date range.
+     */
+    private static final class LegacyHubAnalytics {
+        private static final Map<String, String> TAB_DISPLAY_NAMES = Map.of(
+                "dashboard", "Dashboard",
+                "music", "Music",
+                "messages", "Messages",
+                "money", "Money",
+                "news", "News",
+                "profile", "Profile",
+                "explore", "Profile");
+
+        private final Function<LocalDate, List<TabUsageDaily>> getRollups;
+        private final LocalDate today;
+
+        private LegacyHubAnalytics(Function<LocalDate, List<TabUsageDaily>> getRollups,
+                LocalDate today) {
+            this.getRollups = getRollups;
+            this.today = today;
+        }
+
+        private HubAnalyticsDto getHubAnalytics(String timeframe) {
+            HubAnalyticsDto analytics = new HubAnalyticsDto();
+            int daysInPeriod;
+            switch (timeframe.toLowerCase()) {
+                case "daily":
+                    daysInPeriod = 1;
+                    break;
+                case "monthly":
+                    daysInPeriod = 30;
+                    break;
+                case "yearly":
+                    daysInPeriod = 365;
+                    break;
+                default:
+                    daysInPeriod = 7;
+            }
+            LocalDate since = today.minusDays(daysInPeriod - 1);
+            LocalDate previousSince = since.minusDays(daysInPeriod);
+
+            analytics.setWeeklyActivity(calculateActivityTrend(timeframe));
+            analytics.setEngagementMetrics(calculateEngagementMetrics(since, previousSince, daysInPeriod));
+            analytics.setTabAnalytics(calculateTabAnalytics(since));
+            return analytics;
+        }
+
+        private List<HubAnalyticsDto.TabAnalytics> calculateTabAnalytics(LocalDate since) {
+            Map<String, Long> groupedDurations = new HashMap<>();
+            Map<String, Long> mappedSessionCounts = new HashMap<>();
+            for (TabUsageDaily rollup : getRollups.apply(since)) {
+                String tabName = rollup.getTabName() != null ? rollup.getTabName().toLowerCase() : "unknown";
+                String displayName = TAB_DISPLAY_NAMES.getOrDefault(tabName,
+                        tabName.substring(0, 1).toUpperCase() + tabName.substring(1));
+                groupedDurations.merge(displayName, rollup.getTotalSeconds(), Long::sum);
+                mappedSessionCounts.merge(displayName, (long) rollup.getSessionCount(), Long::sum);
+            }
+
+            long totalDuration = groupedDurations.values().stream().mapToLong(Long::longValue).sum();
+            List<HubAnalyticsDto.TabAnalytics> tabAnalyticsList = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : groupedDurations.entrySet()) {
+                long duration = entry.getValue();
+                tabAnalyticsList.add(new HubAnalyticsDto.TabAnalytics(entry.getKey(),
+                        (int) ((duration * 100) / totalDuration), null, null,
+                        mappedSessionCounts.getOrDefault(entry.getKey(), 0L).intValue(), duration));
+            }
+            return tabAnalyticsList;
+        }
+
+        private List<Integer> calculateActivityTrend(String timeframe) {
+            String mode = timeframe.toLowerCase();
+            LocalDate since;
+            if ("yearly".equals(mode)) {
+                since = today.minusDays(364);
+            } else if ("monthly".equals(mode)) {
+                since = today.minusDays(27);
+            } else {
+                since = today.minusDays(6);
+            }
+
+            List<TabUsageDaily> rollups = getRollups.apply(since);
+            List<Integer> activity = new ArrayList<>();
+            if ("yearly".equals(mode)) {
+                Map<Integer, Long> monthlyDurations = rollups.stream()
+                        .collect(Collectors.groupingBy(r -> r.getUsageDate().getMonthValue(),
+                                Collectors.summingLong(TabUsageDaily::getTotalSeconds)));
+                for (int i = 11; i >= 0; i--) {
+                    int monthValue = today.minusMonths(i).getMonthValue();
+                    activity.add((int) (monthlyDurations.getOrDefault(monthValue, 0L) / 60));
+                }
+            } else {
+                Map<LocalDate, Long> dailyDurations = rollups.stream()
+                        .collect(Collectors.groupingBy(TabUsageDaily::getUsageDate,
+                                Collectors.summingLong(TabUsageDaily::getTotalSeconds)));
+                if ("monthly".equals(mode)) {
+                    for (int w = 3; w >= 0; w--) {
+                        long weekSum = 0;
+                        for (int d = 0; d < 7; d++) {
+                            weekSum += dailyDurations.getOrDefault(today.minusDays(w * 7 + d), 0L);
+                        }
+                        activity.add((int) (weekSum / 60));
+                    }
+                } else {
+                    for (int i = 6; i >= 0; i--) {
+                        activity.add((int) (dailyDurations.getOrDefault(today.minusDays(i), 0L) / 60));
+                    }
+                }
+            }
+            return activity;
+        }
+
+        private HubAnalyticsDto.EngagementMetrics calculateEngagementMetrics(LocalDate currentPeriodStart,
+                LocalDate previousPeriodStart, int daysInPeriod) {
+            HubAnalyticsDto.EngagementMetrics metrics = new HubAnalyticsDto.EngagementMetrics();
+
+            List<TabUsageDaily> rollups = getRollups.apply(previousPeriodStart);
+            List<TabUsageDaily> currentUsages = rollups.stream()
+                    .filter(r -> !r.getUsageDate().isBefore(currentPeriodStart))
+                    .collect(Collectors.toList());
+            List<TabUsageDaily> previousUsages = rollups.stream()
+                    .filter(r -> r.getUsageDate().isBefore(currentPeriodStart))
+                    .collect(Collectors.toList());
+
+            long currentSeconds = currentUsages.stream().mapToLong(TabUsageDaily::getTotalSeconds).sum();
+            Set<String> currentTabs = currentUsages.stream().map(TabUsageDaily::getTabName)
+                    .collect(Collectors.toSet());
+            long previousSeconds = previousUsages.stream().mapToLong(TabUsageDaily::getTotalSeconds).sum();
+            Set<String> previousTabs = previousUsages.stream().map(TabUsageDaily::getTabName)
+                    .collect(Collectors.toSet());
+
+            double avgDailySeconds = currentSeconds / (double) daysInPeriod;
+            double avgDailyHours = avgDailySeconds / 3600.0;
+            if (avgDailyHours < 0.1 && avgDailySeconds > 0) {
+                metrics.setDailyActiveTime(String.format("%.0fm", avgDailySeconds / 60));
+            } else {
+                metrics.setDailyActiveTime(String.format("%.1fh", avgDailyHours));
+            }
+
+            if (previousSeconds > 0) {
+                double timeChange = ((currentSeconds - previousSeconds) / (double) previousSeconds) * 100;
+                metrics.setDailyChange(String.format("%+.0f%%", timeChange));
+            } else if (currentSeconds > 0) {
+                metrics.setDailyChange("+100%");
+            } else {
+                metrics.setDailyChange("0%");
+            }
+
+            int totalFeatures = 12;
+            int usedFeatures = currentTabs.size();
+            metrics.setFeaturesUsed(usedFeatures + "/" + totalFeatures);
+            int featureChange = usedFeatures - previousTabs.size();
+            metrics.setFeaturesChange(featureChange > 0 ? "+" + featureChange
+                    : (featureChange == 0 ? "0" : String.valueOf(featureChange)));
+
+            int engagementScore = 0;
+            if (!currentUsages.isEmpty()) {
+                int varietyScore = (int) ((usedFeatures / (double) totalFeatures) * 40);
+                long activeDays = currentUsages.stream().map(TabUsageDaily::getUsageDate).distinct().count();
+                int consistencyScore = (int) (Math.min(1.0, activeDays / (double) daysInPeriod) * 30);
+                double hoursPerDay = (currentSeconds / 3600.0) / daysInPeriod;
+                int timeScore = Math.min(30, (int) (hoursPerDay * 30));
+                engagementScore = Math.min(100, varietyScore + consistencyScore + timeScore);
+            }
+            metrics.setEngagementScore(engagementScore + "%");
+            metrics.setScoreChange("+5%");
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.exception.PaymentRejectedException;
+import com.m4hub.backend.exception.TransferPendingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private static final int THREADS = 32;
+
+    private IdempotencyService service;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService();
+        ReflectionTestUtils.setField(service, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 10000L);
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequestsWithOneKeyExecuteOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return service.execute("42:transfer", "key-1", "amount=10", () -> {
+                    int run = executions.incrementAndGet();
+                    sleep(50);
+                    return run;
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<Integer> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void pendingOutcomeIsReplayedNotRetried() {
+        AtomicInteger executions = new AtomicInteger();
+        TransferPendingException pending = new TransferPendingException(7L, null);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.execute("42:transfer", "key-2", "amount=10", () -> {
+                executions.incrementAndGet();
+                throw pending;
+            })).isSameAs(pending);
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failureWithoutEffectCanBeRetried() {
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThatThrownBy(() -> service.execute("42:transfer", "key-3", "amount=10", () -> {
+            executions.incrementAndGet();
+            throw new PaymentRejectedException("Incorrect UPI PIN.");
+        })).hasMessage("Incorrect UPI PIN.");
+
+        String result = service.execute("42:transfer", "key-3", "amount=10", () -> {
+            executions.incrementAndGet();
+            return "ok";
+        });
+        assertThat(result).isEqualTo("ok");
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void failureWithUnknownEffectIsReplayed() {
+        AtomicInteger executions = new AtomicInteger();
+        RuntimeException dbError = new RuntimeException("Connection reset");
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.execute("42:transfer", "key-5", "amount=10", () -> {
+                executions.incrementAndGet();
+                throw dbError;
+            })).isSameAs(dbError);
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        service.execute("42:transfer", "key-4", "amount=10", () -> "ok");
+
+        assertThatThrownBy(() -> service.execute("42:transfer", "key-4", "amount=99", () -> "other"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.m4hub.backend.service;
+
+import com.m4hub.backend.component.BankingGateway;
+import com.m4hub.backend.model.BankAccount;
+import com.m4hub.backend.model.LedgerEntry;
+import com.m4hub.backend.model.Transaction;
+import com.m4hub.backend.model.User;
+import com.m4hub.backend.repository.BankAccountRepository;
+import com.m4hub.backend.repository.LedgerEntryRepository;
+import com.m4hub.backend.repository.TransactionRepository;
+import com.m4hub.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrent transfers (settled and released) race with bank syncs; afterwards
+ * every account's balance must equal the sum of its ledger entries and the
+ * bank's figure, no money may have been created or destroyed, and no sync may
+ * have booked a difference caused by a transfer in flight. The single-threaded
+ * cases pin down the guards the race relies on.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;MODE=PostgreSQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ LedgerService.class, TransferSettlementService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerConservationTest {
+
+    private static final BigDecimal OPENING = new BigDecimal("1000.00");
+    private static final int TRANSFER_THREADS = 6;
+    private static final int SYNC_THREADS = 2;
+    private static final int ITERATIONS = 60;
+    private static final int ACCOUNTS = 4;
+
+    @MockBean
+    private BankingGateway bankingGateway;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransferSettlementService transferSettlementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private List<Long> accountIds;
+
+    // The bank's view: moves only when a transfer is executed
+    private final Map<Long, BigDecimal> bank = new ConcurrentHashMap<>();
+    private final Object bankLock = new Object();
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        transactionRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("ledger@test.local");
+        owner = userRepository.save(user);
+
+        accountIds = new ArrayList<>();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            int index = i;
+            Long id = tx.execute(status -> {
+                BankAccount account = new BankAccount();
+                account.setUser(owner);
+                account.setAccountNumber("00000000" + index);
+                account.setBankName("Test Bank");
+                account.setIfscCode("TEST0000001");
+                account.setAccountHolderName("Ledger Test");
+                account.setIsVerified(true);
+                account.setUpiPin("x");
+                account.setBalance(OPENING);
+                BankAccount saved = bankAccountRepository.save(account);
+                ledgerService.recordAdjustment(saved.getId(), OPENING, LedgerService.ENTRY_OPENING);
+                return saved.getId();
+            });
+            accountIds.add(id);
+            bank.put(id, OPENING);
+        }
+    }
+
+    @Test
+    void balancesMatchLedgerAndBankAfterConcurrentTransfersAndSyncs() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(TRANSFER_THREADS + SYNC_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> work = new ArrayList<>();
+
+        for (int t = 0; t < TRANSFER_THREADS; t++) {
+            work.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    transferOnce();
+                }
+                return null;
+            }));
+        }
+        for (int t = 0; t < SYNC_THREADS; t++) {
+            work.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    Long accountId = accountIds.get(ThreadLocalRandom.current().nextInt(accountIds.size()));
+                    LedgerService.BalanceView before = ledgerService.view(accountId);
+                    ledgerService.syncBalance(accountId, bank.get(accountId), before);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : work) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Long accountId : accountIds) {
+            BigDecimal balance = bankAccountRepository.findById(accountId).orElseThrow().getBalance();
+            BigDecimal ledgerSum = ledgerEntryRepository.findAll().stream()
+                    .filter(entry -> entry.getAccountId().equals(accountId))
+                    .map(LedgerEntry::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            assertThat(balance).isEqualByComparingTo(ledgerSum);
+            assertThat(balance).isEqualByComparingTo(bank.get(accountId));
+            total = total.add(balance);
+        }
+        assertThat(total).isEqualByComparingTo(OPENING.multiply(BigDecimal.valueOf(accountIds.size())));
+        // The bank only moves through these transfers, so a sync never has a
+        // real difference to book; any SYNC entry came from a stale figure
+        assertThat(ledgerEntryRepository.findAll())
+                .noneMatch(entry -> LedgerService.ENTRY_SYNC.equals(entry.getEntryType()));
+        assertThat(transactionRepository.findAll())
+                .noneMatch(t -> TransferSettlementService.STATUS_PENDING.equals(t.getStatus()));
+    }
+
+    @Test
+    void nonPositiveMovementsAreRejected() {
+        Long accountId = accountIds.get(0);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> tx.executeWithoutResult(
+                status -> ledgerService.debit(accountId, new BigDecimal("-5.00"), null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tx.executeWithoutResult(
+                status -> ledgerService.credit(accountId, BigDecimal.ZERO, null, LedgerService.ENTRY_CREDIT)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(balanceOf(accountId)).isEqualByComparingTo(OPENING);
+        assertThat(ledgerEntryRepository.count()).isEqualTo(ACCOUNTS);
+    }
+
+    @Test
+    void syncIsSkippedWhenBalanceMovedAndMovedBack() {
+        Long accountId = accountIds.get(0);
+        LedgerService.BalanceView before = ledgerService.view(accountId);
+
+        // The bank's figure was taken mid-way, after the debit but before the credit
+        BigDecimal staleFigure = OPENING.subtract(BigDecimal.TEN);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> ledgerService.debit(accountId, BigDecimal.TEN, null));
+        tx.executeWithoutResult(
+                status -> ledgerService.credit(accountId, BigDecimal.TEN, null, LedgerService.ENTRY_CREDIT));
+
+        assertThat(ledgerService.syncBalance(accountId, staleFigure, before)).isFalse();
+        assertThat(balanceOf(accountId)).isEqualByComparingTo(OPENING);
+        assertNoSyncEntries();
+    }
+
+    @Test
+    void syncIsSkippedWhileTransferIsPending() {
+        Long source = accountIds.get(0);
+        Transaction pending = transferSettlementService.reserve(owner, source, owner, accountIds.get(1),
+                BigDecimal.TEN, "pending");
+
+        // The bank has not executed the transfer, so its figure omits the hold
+        LedgerService.BalanceView before = ledgerService.view(source);
+        assertThat(ledgerService.syncBalance(source, OPENING, before)).isFalse();
+        assertThat(balanceOf(source)).isEqualByComparingTo(OPENING.subtract(BigDecimal.TEN));
+
+        transferSettlementService.release(pending.getId(), "Declined");
+        assertThat(ledgerService.syncBalance(source, OPENING, ledgerService.view(source))).isTrue();
+        assertThat(balanceOf(source)).isEqualByComparingTo(OPENING);
+        assertNoSyncEntries();
+    }
+
+    @Test
+    void syncBooksARealDifference() {
+        Long accountId = accountIds.get(0);
+        BigDecimal bankFigure = OPENING.add(new BigDecimal("25.00"));
+
+        assertThat(ledgerService.syncBalance(accountId, bankFigure, ledgerService.view(accountId))).isTrue();
+        assertThat(balanceOf(accountId)).isEqualByComparingTo(bankFigure);
+        assertThat(ledgerEntryRepository.findAll())
+                .filteredOn(entry -> LedgerService.ENTRY_SYNC.equals(entry.getEntryType()))
+                .singleElement()
+                .satisfies(entry -> assertThat(entry.getAmount()).isEqualByComparingTo("25.00"));
+    }
+
+    private BigDecimal balanceOf(Long accountId) {
+        return bankAccountRepository.findById(accountId).orElseThrow().getBalance();
+    }
+
+    private void assertNoSyncEntries() {
+        assertThat(ledgerEntryRepository.findAll())
+                .noneMatch(entry -> LedgerService.ENTRY_SYNC.equals(entry.getEntryType()));
+    }
+
+    private void transferOnce() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountIds.size());
+        int to = (from + 1 + random.nextInt(accountIds.size() - 1)) % accountIds.size();
+        Long source = accountIds.get(from);
+        Long destination = accountIds.get(to);
+        BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 50));
+
+        Transaction pending;
+        try {
+            pending = transferSettlementService.reserve(owner, source, owner, destination, amount, "stress");
+        } catch (RuntimeException e) {
+            return; // Insufficient funds
+        }
+
+        if (random.nextBoolean()) {
+            synchronized (bankLock) {
+                bank.merge(source, amount.negate(), BigDecimal::add);
+                bank.merge(destination, amount, BigDecimal::add);
+            }
+            transferSettlementService.settle(pending.getId(), "REF-" + pending.getId());
+        } else {
+            transferSettlementService.release(pending.getId(), "Declined");
+        }
+    }
+}
@@ -124,7 +124,7 @@ export default function DashboardLayout({ children, title, subtitle }: Dashboard
 
         if (user?.id) {
             const connectChat = () => {
-                chatService.connect(user.id, () => {
+                chatService.connect(() => {
                     logger.info('Global presence established');
                 });
             };
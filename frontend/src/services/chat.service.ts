@@ -94,7 +94,7 @@ class ChatService {
 
 
     // WebSocket Connection
-    connect(userId: number, onConnected?: () => void) {
+    connect(onConnected?: () => void) {
         if (this.stompClient?.active) return;
 
         this.stompClient = new Client({
@@ -104,7 +104,7 @@ class ChatService {
             heartbeatIncoming: 4000,
             heartbeatOutgoing: 4000,
             connectHeaders: {
-                userId: userId.toString()
+                Authorization: `Bearer ${this.getToken() ?? ''}`
             }
         });
 
@@ -116,31 +116,37 @@ class ChatService {
             logger.info('WebSocket Connected');
 
             // Subscribe to personal message queue
-            this.stompClient?.subscribe(`/queue/messages/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/messages', (message: IMessage) => {
                 const chatMessage = JSON.parse(message.body) as ChatMessage;
                 this.messageCallbacks.forEach(callback => callback(chatMessage));
             });
 
             // Subscribe to typing indicators
-            this.stompClient?.subscribe(`/queue/typing/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/typing', (message: IMessage) => {
                 const data = JSON.parse(message.body);
                 this.typingCallbacks.forEach(callback => callback(data));
             });
 
             // Subscribe to read receipts
-            this.stompClient?.subscribe(`/queue/read/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/read', (message: IMessage) => {
                 const data = JSON.parse(message.body);
                 this.readCallbacks.forEach(callback => callback(data));
             });
 
             // Subscribe to delivery receipts
-            this.stompClient?.subscribe(`/queue/delivered/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/delivered', (message: IMessage) => {
                 const data = JSON.parse(message.body);
                 this.deliveryCallbacks.forEach(callback => callback(data.messageId));
             });
 
+            // Subscribe to frames the server was too busy to accept
+            this.stompClient?.subscribe('/user/queue/errors', (message: IMessage) => {
+                const data = JSON.parse(message.body);
+                logger.warn(`Chat server rejected ${data.action}: ${data.error}`);
+            });
+
             // Subscribe to friend request notifications
-            this.stompClient?.subscribe(`/queue/requests/${userId}`, () => {
+            this.stompClient?.subscribe('/user/queue/requests', () => {
                 logger.info('Friend request notification received');
                 this.requestCallbacks.forEach(callback => callback());
             });
@@ -77,7 +77,7 @@ export default function MessagesScreen() {
 
     useEffect(() => {
         if (user?.id && token) {
-            chatService.connect(user.id, () => {
+            chatService.connect(token, () => {
                 console.log('Connected to chat');
             });
             return () => chatService.disconnect();
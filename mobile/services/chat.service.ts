@@ -56,7 +56,7 @@ class ChatService {
     private requestCallbacks: (() => void)[] = [];
     private presenceCallbacks: ((data: { userId: number; isActive: boolean }) => void)[] = [];
 
-    connect(userId: number, onConnected?: () => void) {
+    connect(token: string, onConnected?: () => void) {
         if (this.stompClient?.active) return;
 
         this.stompClient = new Client({
@@ -66,34 +66,39 @@ class ChatService {
             heartbeatIncoming: 4000,
             heartbeatOutgoing: 4000,
             connectHeaders: {
-                userId: userId.toString()
+                Authorization: `Bearer ${token}`
             }
         });
 
         this.stompClient.onConnect = () => {
             console.log('Mobile WebSocket Connected');
 
-            this.stompClient?.subscribe(`/queue/messages/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/messages', (message: IMessage) => {
                 const chatMessage = JSON.parse(message.body) as ChatMessage;
                 this.messageCallbacks.forEach(callback => callback(chatMessage));
             });
 
-            this.stompClient?.subscribe(`/queue/typing/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/typing', (message: IMessage) => {
                 const data = JSON.parse(message.body);
                 this.typingCallbacks.forEach(callback => callback(data));
             });
 
-            this.stompClient?.subscribe(`/queue/read/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/read', (message: IMessage) => {
                 const data = JSON.parse(message.body);
                 this.readCallbacks.forEach(callback => callback(data));
             });
 
-            this.stompClient?.subscribe(`/queue/delivered/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/delivered', (message: IMessage) => {
                 const data = JSON.parse(message.body);
                 this.deliveryCallbacks.forEach(callback => callback(data.messageId));
             });
 
-            this.stompClient?.subscribe(`/queue/requests/${userId}`, (message: IMessage) => {
+            this.stompClient?.subscribe('/user/queue/errors', (message: IMessage) => {
+                const data = JSON.parse(message.body);
+                console.warn(`Chat server rejected ${data.action}: ${data.error}`);
+            });
+
+            this.stompClient?.subscribe('/user/queue/requests', (message: IMessage) => {
                 console.log('Friend request notification received');
                 this.requestCallbacks.forEach(callback => callback());
             });